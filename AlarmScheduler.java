@@ -0,0 +1,252 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Hashed timing wheel for task start/end alarms. Alarms are keyed by task_id, so rescheduling only touches
+// tasks whose start, end or status changed, and a cancelled alarm is unlinked from its bucket right away
+// instead of waiting in a timer queue.
+class AlarmScheduler {
+    interface Listener {
+        void taskStarted(Task task);
+
+        void taskEnded(Task task);
+    }
+
+    private static final long TICK_MILLIS = 250;
+    private static final int WHEEL_SIZE = 512; // one revolution is a little over two minutes
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final Listener listener;
+    private final Entry[] wheel = new Entry[WHEEL_SIZE];
+    private final long startMillis = System.currentTimeMillis();
+    private long currentTick;
+    private int queueDepth;
+
+    private final LongIntHashMap indexByTask = new LongIntHashMap(-1);
+    private TaskAlarms[] alarms = new TaskAlarms[64];
+    private int alarmCount;
+    private int[] freeIndexes = new int[16];
+    private int freeCount;
+    private int reconcileGeneration;
+
+    private long firedCount;
+    private long lastLagMillis;
+    private long maxLagMillis;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "alarm-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    AlarmScheduler(Listener listener) {
+        this.listener = listener;
+        ticker.scheduleAtFixedRate(this::advance, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Makes the wheel match exactly this set of tasks: changed tasks are rescheduled, missing ones cancelled
+    synchronized void reconcile(Collection<Task> tasks) {
+        int generation = ++reconcileGeneration;
+        long now = System.currentTimeMillis();
+        for (Task task : tasks) {
+            TaskAlarms taskAlarms = update(task, now);
+            if (taskAlarms != null) {
+                taskAlarms.generation = generation;
+            }
+        }
+        for (int i = 0; i < alarmCount; i++) {
+            TaskAlarms taskAlarms = alarms[i];
+            if (taskAlarms != null && taskAlarms.generation != generation) {
+                remove(taskAlarms);
+            }
+        }
+    }
+
+    synchronized void schedule(Task task) {
+        TaskAlarms taskAlarms = update(task, System.currentTimeMillis());
+        if (taskAlarms != null) {
+            taskAlarms.generation = reconcileGeneration;
+        }
+    }
+
+    synchronized void cancel(long taskId) {
+        int index = indexByTask.get(taskId);
+        if (index >= 0) {
+            remove(alarms[index]);
+        }
+    }
+
+    synchronized int getQueueDepth() {
+        return queueDepth;
+    }
+
+    synchronized long getFiredCount() {
+        return firedCount;
+    }
+
+    synchronized long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    synchronized long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private TaskAlarms update(Task task, long now) {
+        long start = task.getStartDate().getTime();
+        long end = task.getEndDate().getTime();
+        boolean finished = task.isFinished();
+        int index = indexByTask.get(task.getId());
+        TaskAlarms taskAlarms = index >= 0 ? alarms[index] : null;
+        if (finished || end <= now) {
+            if (taskAlarms != null) remove(taskAlarms);
+            return null;
+        }
+        if (taskAlarms != null) {
+            taskAlarms.task = task;
+            if (taskAlarms.start == start && taskAlarms.end == end) {
+                return taskAlarms;
+            }
+            unlink(taskAlarms.startEntry);
+            unlink(taskAlarms.endEntry);
+        } else {
+            taskAlarms = new TaskAlarms(task);
+            index = allocateIndex();
+            alarms[index] = taskAlarms;
+            taskAlarms.index = index;
+            indexByTask.put(task.getId(), index);
+        }
+        taskAlarms.start = start;
+        taskAlarms.end = end;
+        taskAlarms.startEntry = start > now ? link(new Entry(taskAlarms, true, start)) : null;
+        taskAlarms.endEntry = link(new Entry(taskAlarms, false, end));
+        return taskAlarms;
+    }
+
+    private void remove(TaskAlarms taskAlarms) {
+        unlink(taskAlarms.startEntry);
+        unlink(taskAlarms.endEntry);
+        indexByTask.remove(taskAlarms.task.getId());
+        alarms[taskAlarms.index] = null;
+        if (freeCount == freeIndexes.length) {
+            freeIndexes = Arrays.copyOf(freeIndexes, freeIndexes.length * 2);
+        }
+        freeIndexes[freeCount++] = taskAlarms.index;
+    }
+
+    private int allocateIndex() {
+        if (freeCount > 0) {
+            return freeIndexes[--freeCount];
+        }
+        if (alarmCount == alarms.length) {
+            alarms = Arrays.copyOf(alarms, alarms.length * 2);
+        }
+        return alarmCount++;
+    }
+
+    private Entry link(Entry entry) {
+        long deadlineTick = Math.max(currentTick + 1, (entry.deadline - startMillis + TICK_MILLIS - 1) / TICK_MILLIS);
+        entry.rounds = (deadlineTick - currentTick - 1) / WHEEL_SIZE;
+        int bucket = (int) (deadlineTick & MASK);
+        entry.bucket = bucket;
+        entry.next = wheel[bucket];
+        if (entry.next != null) entry.next.prev = entry;
+        wheel[bucket] = entry;
+        queueDepth++;
+        return entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry == null || entry.bucket < 0) return;
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheel[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+        entry.bucket = -1;
+        queueDepth--;
+    }
+
+    // Catches up on every tick that has elapsed by the wall clock, then fires outside the lock
+    private void advance() {
+        List<Entry> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            long targetTick = (now - startMillis) / TICK_MILLIS;
+            while (currentTick < targetTick) {
+                currentTick++;
+                Entry entry = wheel[(int) (currentTick & MASK)];
+                while (entry != null) {
+                    Entry next = entry.next;
+                    if (entry.rounds == 0) {
+                        unlink(entry);
+                        due.add(entry);
+                    } else {
+                        entry.rounds--;
+                    }
+                    entry = next;
+                }
+            }
+            // A task whose start and end share a tick still gets both alarms, start first
+            due.sort(Comparator.comparingLong((Entry entry) -> entry.deadline).thenComparing(entry -> !entry.isStart));
+            for (Entry entry : due) {
+                if (!entry.isStart && alarms[entry.owner.index] == entry.owner) {
+                    remove(entry.owner);
+                }
+                lastLagMillis = Math.max(0, now - entry.deadline);
+                maxLagMillis = Math.max(maxLagMillis, lastLagMillis);
+                firedCount++;
+                TaskMetrics.recordAlarmFired(entry.owner.task.getId(), entry.isStart, lastLagMillis);
+            }
+        }
+        for (Entry entry : due) {
+            if (entry.isStart) {
+                listener.taskStarted(entry.owner.task);
+            } else {
+                listener.taskEnded(entry.owner.task);
+            }
+        }
+    }
+
+    private static class TaskAlarms {
+        private Task task;
+        private long start;
+        private long end;
+        private Entry startEntry;
+        private Entry endEntry;
+        private int index;
+        private int generation;
+
+        TaskAlarms(Task task) {
+            this.task = task;
+        }
+    }
+
+    private static class Entry {
+        private final TaskAlarms owner;
+        private final boolean isStart;
+        private final long deadline;
+        private long rounds;
+        private int bucket = -1;
+        private Entry prev;
+        private Entry next;
+
+        Entry(TaskAlarms owner, boolean isStart, long deadline) {
+            this.owner = owner;
+            this.isStart = isStart;
+            this.deadline = deadline;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+import java.awt.Toolkit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// One shared ticker for every in-progress task: each tick drops tasks that have ended and
+// beeps once if any are still running, however many tasks overlap
+class ContinuousAlarmTicker {
+    private static final long TICK_MILLIS = 1000;
+    private final Map<Long, Long> endMillisByTask = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "continuous-alarm");
+        t.setDaemon(true);
+        return t;
+    });
+
+    ContinuousAlarmTicker() {
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Starting an already active task just moves its end time
+    void start(long taskId, long endMillis) {
+        endMillisByTask.put(taskId, endMillis);
+    }
+
+    void stop(long taskId) {
+        endMillisByTask.remove(taskId);
+    }
+
+    boolean isActive(long taskId) {
+        return endMillisByTask.containsKey(taskId);
+    }
+
+    int getActiveCount() {
+        return endMillisByTask.size();
+    }
+
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        endMillisByTask.values().removeIf(endMillis -> endMillis <= now);
+        if (!endMillisByTask.isEmpty()) {
+            Toolkit.getDefaultToolkit().beep();
+        }
+    }
+}
\ No newline at end of file
@@ -1,11 +1,284 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/task_manager";
-    private static final String USER = "root";
-    private static final String PASSWORD = "admin";
+    // Connector/J keeps the prepared statements of each physical connection in its own cache,
+    // and rewrites JDBC batches into multi-row INSERTs
+    private static final String URL_OPTIONS = "?cachePrepStmts=true&useServerPrepStmts=true&prepStmtCacheSize=64&prepStmtCacheSqlLimit=2048&rewriteBatchedStatements=true";
+    // -Dtaskmanager.db.url is used exactly as given, e.g. to point benchmarks at an embedded database
+    private static final String URL = System.getProperty("taskmanager.db.url", "jdbc:mysql://localhost:3306/task_manager" + URL_OPTIONS);
+    private static final String USER = System.getProperty("taskmanager.db.user", "root");
+    private static final String PASSWORD = System.getProperty("taskmanager.db.password", "admin");
+
+    private static final int MAX_POOL_SIZE = 8;
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final long VALIDATION_INTERVAL_MILLIS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static final Semaphore permits = new Semaphore(MAX_POOL_SIZE, true);
+    private static final Deque<PooledConnection> idle = new ArrayDeque<>(); // guarded by itself, most recently used first
+    private static final AtomicInteger active = new AtomicInteger();
+    private static final LongAdder borrowCount = new LongAdder();
+    private static final LongAdder borrowWaitNanos = new LongAdder();
+    private static final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-pool-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        evictor.scheduleWithFixedDelay(DatabaseConnection::evictIdle, 60, 60, TimeUnit.SECONDS);
+    }
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        TaskMetrics.ConnectionAcquireEvent event = new TaskMetrics.ConnectionAcquireEvent();
+        event.begin();
+        long started = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(URL, USER, PASSWORD));
+            }
+            active.incrementAndGet();
+            recordBorrowWait(System.nanoTime() - started);
+            event.commit();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // user@url without the driver options, which do not change what data the connection sees
+    static String describe() {
+        int options = URL.indexOf('?');
+        return USER + "@" + (options >= 0 ? URL.substring(0, options) : URL);
+    }
+
+    // For catch blocks: on a dropped connection the rollback fails as well, and must not replace the error at hand
+    static void rollbackAfter(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException rollbackError) {
+            cause.addSuppressed(rollbackError);
+        }
+    }
+
+    public static int getActiveCount() {
+        return active.get();
+    }
+
+    public static int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    public static long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public static double getAverageBorrowWaitMillis() {
+        long count = borrowCount.sum();
+        return count == 0 ? 0 : borrowWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public static double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1_000_000.0;
+    }
+
+    public static void shutdown() {
+        evictor.shutdownNow();
+        List<PooledConnection> toClose;
+        synchronized (idle) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (PooledConnection pooled : toClose) {
+            pooled.closePhysical();
+        }
+    }
+
+    private static void recordBorrowWait(long nanos) {
+        borrowCount.increment();
+        borrowWaitNanos.add(nanos);
+        maxBorrowWaitNanos.accumulateAndGet(nanos, Math::max);
+        TaskMetrics.record("db.connectionAcquire", TaskMetrics.MICROS, nanos / 1000);
+    }
+
+    private static PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) return null;
+            if (System.currentTimeMillis() - pooled.lastUsed < VALIDATION_INTERVAL_MILLIS || pooled.isValid()) {
+                return pooled;
+            }
+            pooled.closePhysical();
+        }
+    }
+
+    private static void release(PooledConnection pooled) {
+        try {
+            if (pooled.reset()) {
+                pooled.lastUsed = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                pooled.closePhysical();
+            }
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private static void evictIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS;
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (pooled.lastUsed >= cutoff) break;
+                it.remove();
+                expired.add(pooled);
+            }
+        }
+        for (PooledConnection pooled : expired) {
+            pooled.closePhysical();
+        }
+    }
+
+    private static class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Each borrower gets its own handle so a second close() cannot return the connection twice. Statements,
+        // metadata and result sets reached through it are wrapped too, so their getConnection() and getStatement()
+        // hand back the handle rather than the physical connection the pool may already have lent to someone else.
+        Connection lease() {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (closed.compareAndSet(false, true)) {
+                                    release(this);
+                                }
+                                return null;
+                            case "isClosed":
+                                return closed.get() || physical.isClosed();
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "toString":
+                                return "Pooled(" + physical + ")";
+                            default:
+                                if (closed.get()) throw new SQLException("Connection is closed");
+                                return wrap(method.getReturnType(), delegate(method, physical, args), proxy);
+                        }
+                    });
+        }
+
+        private static Object wrap(Class<?> type, Object target, Object owner) {
+            if (target == null) return null;
+            String ownerMethod;
+            if (type == Statement.class || type == PreparedStatement.class || type == CallableStatement.class
+                    || type == DatabaseMetaData.class) {
+                ownerMethod = "getConnection";
+            } else if (type == ResultSet.class && owner instanceof Statement) {
+                ownerMethod = "getStatement";
+            } else {
+                return target;
+            }
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.equals(ownerMethod) && method.getParameterCount() == 0) return owner;
+                if (name.equals("equals") && method.getParameterCount() == 1) return proxy == args[0];
+                if (name.equals("hashCode") && method.getParameterCount() == 0) return System.identityHashCode(proxy);
+                return wrap(method.getReturnType(), delegate(method, target, args), proxy);
+            });
+        }
+
+        private static Object delegate(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        boolean isValid() {
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Undo whatever the borrower left behind; false means the connection is not worth keeping
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
     }
 }
\ No newline at end of file
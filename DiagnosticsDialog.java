@@ -0,0 +1,184 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+
+import java.awt.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Live view of TaskMetrics, opened with Ctrl+Shift+D: percentiles of every histogram, current gauge values,
+// and the distribution of the selected histogram, refreshed every second while the dialog is open
+class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MILLIS = 1000;
+    private static final String[] COLUMNS = { "Metric", "Unit", "Count", "p50", "p90", "p99", "Max" };
+
+    private final MetricsTableModel tableModel = new MetricsTableModel();
+    private final JTable table = new JTable(tableModel);
+    private final JLabel gaugeLabel = new JLabel(" ");
+    private final HistogramChart chart = new HistogramChart();
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    DiagnosticsDialog(Frame owner) {
+        super(owner, "Diagnostics", false);
+        setSize(760, 520);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getSelectionModel().addListSelectionListener(e -> chart.repaint());
+        gaugeLabel.setBorder(BorderFactory.createEmptyBorder(6, 8, 6, 8));
+
+        JButton saveButton = new JButton("Save Metrics...");
+        saveButton.addActionListener(e -> saveMetrics());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(saveButton);
+        buttons.add(closeButton);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), chart);
+        split.setResizeWeight(0.6);
+        setLayout(new BorderLayout());
+        add(gaugeLabel, BorderLayout.NORTH);
+        add(split, BorderLayout.CENTER);
+        add(buttons, BorderLayout.SOUTH);
+        refresh();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+
+    private void refresh() {
+        String selected = selectedName();
+        tableModel.reload();
+        int row = tableModel.indexOf(selected);
+        if (row >= 0) {
+            table.getSelectionModel().setSelectionInterval(row, row);
+        }
+        StringBuilder gauges = new StringBuilder("<html>");
+        for (Map.Entry<String, Long> gauge : TaskMetrics.gaugeValues().entrySet()) {
+            gauges.append(gauge.getKey()).append(" = <b>").append(gauge.getValue()).append("</b>&nbsp;&nbsp;&nbsp; ");
+        }
+        gaugeLabel.setText(gauges.append("</html>").toString());
+        chart.repaint();
+    }
+
+    private String selectedName() {
+        int row = table.getSelectedRow();
+        return row >= 0 ? tableModel.nameAt(row) : null;
+    }
+
+    private void saveMetrics() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("task-manager-metrics.json"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            TaskMetrics.dump(chooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not save metrics: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static class MetricsTableModel extends AbstractTableModel {
+        private final List<String> names = new ArrayList<>();
+        private final List<long[]> values = new ArrayList<>();
+
+        void reload() {
+            names.clear();
+            values.clear();
+            for (Map.Entry<String, Histogram> entry : TaskMetrics.histograms().entrySet()) {
+                Histogram histogram = entry.getValue();
+                names.add(entry.getKey());
+                values.add(new long[] { histogram.count(), histogram.percentile(0.5), histogram.percentile(0.9),
+                        histogram.percentile(0.99), histogram.max() });
+            }
+            fireTableDataChanged();
+        }
+
+        String nameAt(int row) {
+            return names.get(row);
+        }
+
+        int indexOf(String name) {
+            return name == null ? -1 : names.indexOf(name);
+        }
+
+        @Override
+        public int getRowCount() {
+            return names.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            switch (column) {
+                case 0:
+                    return names.get(row);
+                case 1:
+                    return TaskMetrics.unitOf(names.get(row));
+                default:
+                    return values.get(row)[column - 2];
+            }
+        }
+    }
+
+    // Bar per non-empty bucket range of the selected histogram; the x axis is logarithmic like the buckets
+    private class HistogramChart extends JComponent {
+        HistogramChart() {
+            setPreferredSize(new Dimension(700, 180));
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            g.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            String name = selectedName();
+            g.setColor(Color.DARK_GRAY);
+            if (name == null) {
+                g.drawString("Select a metric to see its distribution", 10, 20);
+                return;
+            }
+            Histogram histogram = TaskMetrics.histograms().get(name);
+            int first = -1;
+            int last = -1;
+            long peak = 0;
+            for (int i = 0; i < Histogram.BUCKETS; i++) {
+                long count = histogram.countAt(i);
+                if (count == 0) continue;
+                if (first < 0) first = i;
+                last = i;
+                peak = Math.max(peak, count);
+            }
+            g.drawString(name + " (" + TaskMetrics.unitOf(name) + ")", 10, 16);
+            if (first < 0) return;
+            int top = 24;
+            int bottom = getHeight() - 20;
+            int buckets = last - first + 1;
+            double barWidth = (getWidth() - 20) / (double) buckets;
+            for (int i = first; i <= last; i++) {
+                long count = histogram.countAt(i);
+                int height = (int) Math.round((bottom - top) * (count / (double) peak));
+                int x = 10 + (int) ((i - first) * barWidth);
+                g.setColor(new Color(70, 130, 180));
+                g.fillRect(x, bottom - height, Math.max(1, (int) barWidth - 1), height);
+            }
+            g.setColor(Color.DARK_GRAY);
+            g.drawString("\u2264" + Histogram.upperBound(first), 10, getHeight() - 5);
+            String right = "\u2264" + Histogram.upperBound(last);
+            g.drawString(right, getWidth() - 10 - g.getFontMetrics().stringWidth(right), getHeight() - 5);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear histogram of non-negative values: 16 linear steps per power of two, so a reported
+// percentile is within ~6% of the true value. Recording is two atomic updates and never allocates.
+final class Histogram {
+    private static final int SUB_BUCKETS = 16;
+    static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(bucket(clamped));
+        max.accumulateAndGet(clamped, Math::max);
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    long countAt(int bucket) {
+        return counts.get(bucket);
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    // Upper bound of the bucket holding the requested rank
+    long percentile(double fraction) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    // {"count", "perSecond", "errors", "p50", "p90", "p99", "p999", "max"}, values in the recorded unit
+    void appendJson(StringBuilder json, double elapsedSeconds, long errorCount) {
+        long count = count();
+        json.append(String.format(Locale.ROOT, "{\"count\": %d, \"perSecond\": %.1f, \"errors\": %d, \"p50\": %d, \"p90\": %d, "
+                + "\"p99\": %d, \"p999\": %d, \"max\": %d}", count, count / elapsedSeconds, errorCount,
+                percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999), max()));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value); // >= 4
+        int sub = (int) (value >>> (magnitude - 4)) & (SUB_BUCKETS - 1);
+        return (magnitude - 3) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int magnitude = bucket / SUB_BUCKETS + 3;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (magnitude - 4)) - 1;
+    }
+}
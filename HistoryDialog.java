@@ -0,0 +1,95 @@
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+// Read-only view of tasks_history, one page at a time with keyset pagination; the keys of the pages already
+// visited are kept so "Newer" can step back without counting rows
+class HistoryDialog extends JDialog {
+    private static final int PAGE_SIZE = 200;
+    private static final String[] COLUMNS = { "Task Name", "Description", "Start Date", "End Date", "Status", "Last Updated" };
+
+    private final SimpleDateFormat dateFormat;
+    private final DefaultTableModel tableModel = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+    private final JButton newerButton = new JButton("< Newer");
+    private final JButton olderButton = new JButton("Older >");
+    private final JLabel pageLabel = new JLabel(" ");
+    // Keyset (updated_at, task_id) of the last row before each visited page; page 0 starts at the top
+    private final List<long[]> pageStarts = new ArrayList<>();
+    private int page;
+    private long generation;
+
+    HistoryDialog(Frame owner, SimpleDateFormat dateFormat) {
+        super(owner, "Task History", false);
+        this.dateFormat = dateFormat;
+        setSize(860, 520);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        newerButton.addActionListener(e -> loadPage(page - 1));
+        olderButton.addActionListener(e -> loadPage(page + 1));
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> dispose());
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(pageLabel);
+        buttons.add(newerButton);
+        buttons.add(olderButton);
+        buttons.add(closeButton);
+
+        JLabel note = new JLabel("Completed and canceled tasks untouched for more than " + TaskArchiver.archiveDays()
+                + " days are moved here automatically.");
+        note.setBorder(BorderFactory.createEmptyBorder(6, 8, 6, 8));
+        setLayout(new BorderLayout());
+        add(note, BorderLayout.NORTH);
+        add(new JScrollPane(new JTable(tableModel)), BorderLayout.CENTER);
+        add(buttons, BorderLayout.SOUTH);
+
+        pageStarts.add(new long[] { 0, -1 });
+        loadPage(0);
+    }
+
+    private void loadPage(int target) {
+        long loadGeneration = ++generation;
+        long[] start = pageStarts.get(target);
+        newerButton.setEnabled(false);
+        olderButton.setEnabled(false);
+        pageLabel.setText("Loading...");
+        TaskArchiver.getHistoryPageAsync(start[0], start[1], PAGE_SIZE).whenComplete((tasks, error) -> SwingUtilities.invokeLater(() -> {
+            if (loadGeneration != generation || !isDisplayable()) return;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                pageLabel.setText(" ");
+                newerButton.setEnabled(page > 0);
+                JOptionPane.showMessageDialog(this, "Database error: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            showPage(target, tasks);
+        }));
+    }
+
+    private void showPage(int target, List<Task> tasks) {
+        page = target;
+        tableModel.setRowCount(0);
+        for (Task t : tasks) {
+            tableModel.addRow(new Object[] { t.getName(), t.getDescription(), dateFormat.format(t.getStartDate()),
+                    dateFormat.format(t.getEndDate()), t.getStatus(), dateFormat.format(t.getUpdatedAt()) });
+        }
+        boolean full = tasks.size() == PAGE_SIZE;
+        if (full && pageStarts.size() == page + 1) {
+            Task last = tasks.get(tasks.size() - 1);
+            pageStarts.add(new long[] { last.getUpdatedAt().getTime(), last.getId() });
+        }
+        newerButton.setEnabled(page > 0);
+        olderButton.setEnabled(full);
+        pageLabel.setText(tasks.isEmpty() && page == 0 ? "No archived tasks" : "Page " + (page + 1));
+    }
+}
@@ -0,0 +1,306 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Headless load and soak driver. Worker threads make the same repository calls as TaskManager's buttons,
+// a poller applies the change feed to a table model and alarm wheel the way the window does, and clusters of
+// tasks are timed to start together so alarm lag is measured under load. Runs against a MappedFileTaskStore
+// in a scratch directory unless --store=default picks the configured store.
+class LoadHarness {
+    private static final String USAGE = "Usage: java LoadHarness [--tasks=10000] [--duration=60] [--concurrency=16]"
+            + " [--mix=add:10,update:35,status:10,reschedule:5,delete:5,filter:35] [--clusters=5] [--cluster-size=200]"
+            + " [--store=file|default] [--dir=<store dir>] [--out=load-result.json]";
+    private static final String[] OPERATIONS = { "add", "update", "status", "reschedule", "delete", "filter" };
+    private static final long POLL_MILLIS = 2000;
+    private static final long HOUR = 3_600_000L;
+
+    private final Map<String, String> options;
+    private final int taskCount;
+    private final int durationSeconds;
+    private final int concurrency;
+    private final int[] mix = new int[OPERATIONS.length];
+    private final int clusters;
+    private final int clusterSize;
+
+    // Operation latencies and alarm lag in microseconds
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final Histogram syncLatency = new Histogram();
+    private final Histogram alarmLag = new Histogram();
+    private final AtomicLongArray errors = new AtomicLongArray(OPERATIONS.length);
+    // Ids the workers may touch; alarm cluster tasks are left alone so their timing stays as seeded
+    private final List<Long> workloadIds = new ArrayList<>(); // guarded by itself
+
+    // The window's state, only touched under uiLock the way the EDT would serialise it
+    private final Object uiLock = new Object();
+    private final TaskCache taskCache = new TaskCache();
+    private final TaskTableModel tableModel = new TaskTableModel(new SimpleDateFormat("dd/MM/yyyy HH:mm"));
+    private final AlarmScheduler alarmScheduler = new AlarmScheduler(new AlarmScheduler.Listener() {
+        @Override
+        public void taskStarted(Task task) {
+            alarmLag.record((System.currentTimeMillis() - task.getStartDate().getTime()) * 1000);
+        }
+
+        @Override
+        public void taskEnded(Task task) {
+            alarmLag.record((System.currentTimeMillis() - task.getEndDate().getTime()) * 1000);
+        }
+    });
+    private long syncWatermark;
+
+    private TaskRepository repository;
+    private volatile long deadline;
+
+    LoadHarness(Map<String, String> options) {
+        this.options = options;
+        taskCount = Integer.parseInt(options.getOrDefault("tasks", "10000"));
+        durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        clusters = Integer.parseInt(options.getOrDefault("clusters", "5"));
+        clusterSize = Integer.parseInt(options.getOrDefault("cluster-size", "200"));
+        for (String entry : options.getOrDefault("mix", "add:10,update:35,status:10,reschedule:5,delete:5,filter:35").split(",")) {
+            String[] parts = entry.split(":");
+            int operation = List.of(OPERATIONS).indexOf(parts[0].trim());
+            if (operation < 0 || parts.length != 2) throw new IllegalArgumentException("Bad mix entry '" + entry + "'");
+            mix[operation] = Integer.parseInt(parts[1].trim());
+        }
+        for (String operation : OPERATIONS) {
+            latencies.put(operation, new Histogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        new LoadHarness(options).run();
+    }
+
+    void run() throws Exception {
+        TaskStore store = openStore();
+        repository = new TaskRepository(store);
+        long seedStarted = System.nanoTime();
+        seed();
+        long seedMillis = (System.nanoTime() - seedStarted) / 1_000_000;
+        TaskDelta loaded = repository.loadTasks(TaskManager.FILTER_ALL);
+        synchronized (uiLock) {
+            taskCache.replaceAll(loaded.getChanged());
+            tableModel.setTasks(loaded.getChanged());
+            alarmScheduler.reconcile(loaded.getChanged());
+            syncWatermark = loaded.getWatermark();
+        }
+        System.out.printf("Seeded %d tasks in %d ms; running %d workers for %d s%n", taskCount, seedMillis, concurrency, durationSeconds);
+
+        long started = System.nanoTime();
+        deadline = started + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(this::work);
+        }
+        workers.execute(this::poll);
+        workers.shutdown();
+        workers.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        // Alarms of the last cluster may still be a tick away
+        Thread.sleep(1000);
+        alarmScheduler.shutdown();
+        store.close();
+
+        String result = report(elapsedSeconds, seedMillis);
+        Path out = Paths.get(options.getOrDefault("out", "load-result.json"));
+        Files.writeString(out, result);
+        System.out.println("Wrote " + out.toAbsolutePath());
+    }
+
+    private TaskStore openStore() throws Exception {
+        if (options.getOrDefault("store", "file").equals("default")) {
+            return TaskRepository.defaultStore();
+        }
+        Path dir = options.containsKey("dir") ? Paths.get(options.get("dir")) : Files.createTempDirectory("task-load-");
+        return MappedFileTaskStore.open(dir);
+    }
+
+    // Workload tasks spread over the coming weeks, plus clusters that all start at the same instant during the run
+    private void seed() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        List<CompletableFuture<Long>> added = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            long start = now + HOUR + (long) (random.nextDouble() * 14 * 24 * HOUR);
+            added.add(repository.addTaskAsync("Load task " + i, "Seeded by LoadHarness", new Date(start), new Date(start + HOUR), "Pending"));
+        }
+        for (CompletableFuture<Long> taskId : added) {
+            workloadIds.add(taskId.join());
+        }
+        for (int c = 0; c < clusters; c++) {
+            long start = now + (c + 1) * TimeUnit.SECONDS.toMillis(durationSeconds) / (clusters + 1) + 5000;
+            for (int i = 0; i < clusterSize; i++) {
+                repository.addTask("Alarm cluster " + c + " task " + i, "", new Date(start), new Date(start + 30_000), "Pending");
+            }
+        }
+    }
+
+    private void work() {
+        int total = 0;
+        for (int weight : mix) total += weight;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            int pick = random.nextInt(total);
+            int operation = 0;
+            while (pick >= mix[operation]) {
+                pick -= mix[operation++];
+            }
+            long started = System.nanoTime();
+            try {
+                if (perform(operation, random)) {
+                    latencies.get(OPERATIONS[operation]).record((System.nanoTime() - started) / 1000);
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet(operation);
+            }
+        }
+    }
+
+    // False when there was nothing to do, e.g. the picked task has not reached the cache yet
+    private boolean perform(int operation, ThreadLocalRandom random) throws Exception {
+        switch (OPERATIONS[operation]) {
+            case "add": {
+                long start = System.currentTimeMillis() + HOUR + random.nextLong(7 * 24 * HOUR);
+                long taskId = repository.addTaskAsync("Added task", "Added by LoadHarness", new Date(start), new Date(start + HOUR), "Pending").join();
+                synchronized (workloadIds) {
+                    workloadIds.add(taskId);
+                }
+                break;
+            }
+            case "update": {
+                Task task = taskCache.get(randomId(random));
+                if (task == null) return false;
+                repository.updateTaskAsync(task.getId(), task.getName() + "*", task.getDescription(), task.getStartDate(), task.getEndDate(), task.getStatus()).join();
+                break;
+            }
+            case "status":
+                repository.updateStatusAsync(randomIds(random, 1 + random.nextInt(10)),
+                        TaskManager.TASK_STATUSES[random.nextInt(TaskManager.TASK_STATUSES.length)]).join();
+                break;
+            case "reschedule":
+                repository.rescheduleTasksAsync(randomIds(random, 1 + random.nextInt(10)), 15).join();
+                break;
+            case "delete": {
+                long taskId;
+                synchronized (workloadIds) {
+                    if (workloadIds.size() <= 1) return false;
+                    int index = random.nextInt(workloadIds.size());
+                    taskId = workloadIds.get(index);
+                    workloadIds.set(index, workloadIds.get(workloadIds.size() - 1));
+                    workloadIds.remove(workloadIds.size() - 1);
+                }
+                repository.deleteTasksAsync(new long[] { taskId }).join();
+                break;
+            }
+            default:
+                synchronized (uiLock) {
+                    tableModel.setFilter((byte) (random.nextInt(TaskManager.TASK_STATUSES.length + 1) - 1), Long.MIN_VALUE, Long.MAX_VALUE, "");
+                }
+                break;
+        }
+        return true;
+    }
+
+    private long randomId(ThreadLocalRandom random) {
+        synchronized (workloadIds) {
+            return workloadIds.get(random.nextInt(workloadIds.size()));
+        }
+    }
+
+    private long[] randomIds(ThreadLocalRandom random, int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = randomId(random);
+        }
+        return ids;
+    }
+
+    // TaskManager.pollChanges followed by applyDelta
+    private void poll() {
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+                long started = System.nanoTime();
+                TaskDelta delta = repository.getChangesSince(syncWatermark);
+                synchronized (uiLock) {
+                    syncWatermark = Math.max(syncWatermark, delta.getWatermark());
+                    for (Task task : delta.getChanged()) {
+                        taskCache.put(task);
+                        alarmScheduler.schedule(task);
+                    }
+                    for (long taskId : delta.getDeletedIds()) {
+                        taskCache.remove(taskId);
+                        alarmScheduler.cancel(taskId);
+                    }
+                    tableModel.applyChanges(delta.getChanged(), delta.getDeletedIds());
+                }
+                syncLatency.record((System.nanoTime() - started) / 1000);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Change sync failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private String report(double elapsedSeconds, long seedMillis) {
+        StringBuilder json = new StringBuilder(2048);
+        json.append("{\n  \"started\": ");
+        TaskJson.appendString(json, TaskJson.formatDate(new Date()));
+        json.append(",\n  \"store\": ");
+        TaskJson.appendString(json, options.getOrDefault("store", "file"));
+        json.append(String.format(Locale.ROOT, ",\n  \"tasks\": %d,\n  \"durationSeconds\": %.3f,\n  \"concurrency\": %d,\n  \"seedMillis\": %d,\n  \"mix\": {",
+                taskCount, elapsedSeconds, concurrency, seedMillis));
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            json.append(i > 0 ? ", " : "").append('"').append(OPERATIONS[i]).append("\": ").append(mix[i]);
+        }
+        json.append("},\n  \"latencyUnit\": \"microseconds\",\n  \"operations\": {");
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %10s %8s%n", "operation", "count", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us", "errors");
+        long totalCount = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            Histogram histogram = latencies.get(OPERATIONS[i]);
+            totalCount += histogram.count();
+            printRow(OPERATIONS[i], histogram, elapsedSeconds, errors.get(i));
+            json.append(i > 0 ? "," : "").append("\n    \"").append(OPERATIONS[i]).append("\": ");
+            histogram.appendJson(json, elapsedSeconds, errors.get(i));
+        }
+        printRow("sync", syncLatency, elapsedSeconds, 0);
+        System.out.printf("%-12s %10d %10.1f%n", "total", totalCount, totalCount / elapsedSeconds);
+        System.out.printf("Alarms fired: %d, lag p50 %d ms, p99 %d ms, max %d ms%n", alarmLag.count(),
+                alarmLag.percentile(0.5) / 1000, alarmLag.percentile(0.99) / 1000, alarmLag.max() / 1000);
+        json.append("\n  },\n  \"sync\": ");
+        syncLatency.appendJson(json, elapsedSeconds, 0);
+        json.append(",\n  \"alarmLag\": ");
+        alarmLag.appendJson(json, elapsedSeconds, 0);
+        json.append(String.format(Locale.ROOT, ",\n  \"totalOpsPerSecond\": %.1f\n}\n", totalCount / elapsedSeconds));
+        return json.toString();
+    }
+
+    private static void printRow(String name, Histogram histogram, double elapsedSeconds, long errorCount) {
+        System.out.printf("%-12s %10d %10.1f %10d %10d %10d %10d %8d%n", name, histogram.count(), histogram.count() / elapsedSeconds,
+                histogram.percentile(0.5), histogram.percentile(0.99), histogram.percentile(0.999), histogram.max(), errorCount);
+    }
+}
@@ -0,0 +1,792 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+// Embedded store for single-user and edge setups: every write appends task records to a log that is
+// memory-mapped in fixed-size chunks, and an in-memory task_id -> offset index points at the latest record
+// of each task. List reads come from a decoded, sorted view of those records kept between writes. Superseded
+// records are garbage until a background compaction copies the live ones, and the delete tombstones, into a
+// fresh log and swaps it in.
+final class MappedFileTaskStore implements TaskStore {
+    private static final int CHUNK_SIZE = 64 << 20;
+    private static final int ALIGNMENT = 8; // the index stores offset / ALIGNMENT, so int covers 16 GB
+    private static final int SKIP_TO_NEXT_CHUNK = -1;
+    private static final int MAX_BODY = 1 << 20; // far below CHUNK_SIZE, so every accepted record fits in a chunk
+    private static final int PUT_FIXED_BYTES = 1 + 8 + 8 + 4 + 4 + 8 + 8 + 1 + 8;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte META = 3; // version and next task_id, written first by compaction
+    private static final long COMPACT_MIN_GARBAGE = 8 << 20;
+
+    private final Path logFile;
+    private final Path compactFile;
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Log log;
+    private LongIntHashMap offsets = new LongIntHashMap(-1);
+    private long version;
+    private long nextTaskId = 1;
+    private long liveBytes;
+    private long garbageBytes;
+    // (version, task_id) of every write in the log, in version order; trimmed to the latest per task as it fills
+    private long[] changeVersions = new long[1024];
+    private long[] changeIds = new long[1024];
+    private int changeCount;
+    private boolean compacting;
+    private volatile TaskView view;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "task-store-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private MappedFileTaskStore(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        logFile = dir.resolve("tasks.log");
+        compactFile = dir.resolve("tasks.log.compact");
+        lockChannel = FileChannel.open(dir.resolve("tasks.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null; // already open in this JVM
+        }
+        fileLock = acquired;
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IOException(dir + " is in use by another process");
+        }
+        // A compaction that never reached its swap leaves a partial copy behind
+        Files.deleteIfExists(compactFile);
+        log = new Log(logFile);
+        replay();
+    }
+
+    static MappedFileTaskStore open(Path dir) throws SQLException {
+        try {
+            MappedFileTaskStore store = new MappedFileTaskStore(dir);
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close));
+            return store;
+        } catch (IOException e) {
+            throw new SQLException("Could not open task store in " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Task> getTasks(String filter) throws SQLException {
+        String status = filter.equals(TaskManager.FILTER_ALL) ? null : TaskManager.TASK_STATUSES[statusCode(filter)];
+        Task[] sorted = currentView().tasks;
+        if (status == null) return new ArrayList<>(Arrays.asList(sorted));
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : sorted) {
+            if (task.getStatus().equals(status)) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> getTasksDueBetween(long fromMillis, long toMillis) throws SQLException {
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : currentView().tasks) {
+            if (task.getEndDate().getTime() > fromMillis && task.getStartDate().getTime() < toMillis && !task.isFinished()) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    // The view is already in page order, so a page starts at a binary search for its key
+    @Override
+    public List<Task> getTaskPage(String filter, long afterUpdatedMillis, long afterTaskId, int limit) throws SQLException {
+        String status = filter.equals(TaskManager.FILTER_ALL) ? null : TaskManager.TASK_STATUSES[statusCode(filter)];
+        Task[] sorted = currentView().tasks;
+        int from = 0;
+        if (afterTaskId >= 0) {
+            int high = sorted.length;
+            while (from < high) {
+                int mid = (from + high) >>> 1;
+                long updated = sorted[mid].getUpdatedAt().getTime();
+                if (updated < afterUpdatedMillis || (updated == afterUpdatedMillis && sorted[mid].getId() < afterTaskId)) {
+                    high = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+        }
+        List<Task> tasks = new ArrayList<>(Math.min(limit, sorted.length - from));
+        for (int i = from; i < sorted.length && tasks.size() < limit; i++) {
+            if (status == null || sorted[i].getStatus().equals(status)) {
+                tasks.add(sorted[i]);
+            }
+        }
+        return tasks;
+    }
+
+    // Every live task decoded and sorted newest first, rebuilt on the first read after a write. Only the
+    // offsets are copied under the read lock; records never change once appended, so decoding happens after
+    // it is released, and a rebuild reuses the tasks whose record did not move and merges in the rest.
+    private TaskView currentView() {
+        Log source;
+        long atVersion;
+        long[] live;
+        lock.readLock().lock();
+        try {
+            TaskView cached = view;
+            if (cached != null && cached.version == version && cached.log == log) return cached;
+            source = log;
+            atVersion = version;
+            live = new long[offsets.size()];
+            int[] count = { 0 };
+            offsets.forEach((taskId, slot) -> live[count[0]++] = (long) slot * ALIGNMENT);
+        } finally {
+            lock.readLock().unlock();
+        }
+        TaskView previous = view;
+        boolean reusable = previous != null && previous.log == source;
+        LongIntHashMap previousIndex = new LongIntHashMap(reusable ? previous.offsets.length : 16, -1);
+        if (reusable) {
+            for (int i = 0; i < previous.offsets.length; i++) {
+                previousIndex.put(previous.offsets[i], i);
+            }
+        }
+        boolean[] kept = new boolean[reusable ? previous.tasks.length : 0];
+        List<Task> added = new ArrayList<>();
+        List<Long> addedOffsets = new ArrayList<>();
+        for (long offset : live) {
+            int index = previousIndex.get(offset);
+            if (index >= 0) {
+                kept[index] = true;
+            } else {
+                added.add(source.readTask(offset));
+                addedOffsets.add(offset);
+            }
+        }
+        Integer[] order = new Integer[added.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Task.NEWEST_FIRST.compare(added.get(x), added.get(y)));
+
+        Task[] tasks = new Task[live.length];
+        long[] taskOffsets = new long[live.length];
+        int next = 0;
+        int old = 0;
+        int fresh = 0;
+        while (next < tasks.length) {
+            while (old < kept.length && !kept[old]) old++;
+            boolean takeOld = old < kept.length
+                    && (fresh == order.length || Task.NEWEST_FIRST.compare(previous.tasks[old], added.get(order[fresh])) <= 0);
+            if (takeOld) {
+                tasks[next] = previous.tasks[old];
+                taskOffsets[next++] = previous.offsets[old++];
+            } else {
+                tasks[next] = added.get(order[fresh]);
+                taskOffsets[next++] = addedOffsets.get(order[fresh++]);
+            }
+        }
+        TaskView built = new TaskView(source, atVersion, tasks, taskOffsets);
+        view = built;
+        return built;
+    }
+
+    @Override
+    public long getCurrentVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same contract as the MySQL change log: each task once, at its latest change, absent means deleted
+    @Override
+    public TaskDelta getChangesSince(long sinceVersion) {
+        lock.readLock().lock();
+        try {
+            int low = 0;
+            int high = changeCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (changeVersions[mid] <= sinceVersion) low = mid + 1; else high = mid;
+            }
+            Set<Long> touched = new LinkedHashSet<>();
+            for (int i = low; i < changeCount; i++) {
+                touched.add(changeIds[i]);
+            }
+            long newVersion = Math.max(sinceVersion, version);
+            List<Task> changed = new ArrayList<>();
+            List<Long> deletedIds = new ArrayList<>();
+            for (long taskId : touched) {
+                int slot = offsets.get(taskId);
+                if (slot >= 0) {
+                    changed.add(log.readTask((long) slot * ALIGNMENT));
+                } else {
+                    deletedIds.add(taskId);
+                }
+            }
+            return new TaskDelta(changed, deletedIds, newVersion);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long addTask(String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        byte statusCode = statusCode(status);
+        checkSize(name, description);
+        lock.writeLock().lock();
+        try {
+            long taskId = nextTaskId++;
+            long start = log.writePosition;
+            put(++version, taskId, name, description, startDate.getTime(), endDate.getTime(), statusCode);
+            log.force(start, log.writePosition);
+            return taskId;
+        } catch (IOException e) {
+            throw writeFailed(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        writeBatch(List.of(new Task(taskId, name, description, startDate, endDate, status)), new long[0]);
+    }
+
+    @Override
+    public void deleteTask(long taskId) throws SQLException {
+        writeBatch(List.of(), new long[] { taskId });
+    }
+
+    @Override
+    public void updateStatus(long[] taskIds, String status) throws SQLException {
+        byte statusCode = statusCode(status);
+        rewrite(taskIds, (task, recordVersion) -> put(recordVersion, task.getId(), task.getName(), task.getDescription(),
+                task.getStartDate().getTime(), task.getEndDate().getTime(), statusCode));
+    }
+
+    @Override
+    public void rescheduleTasks(long[] taskIds, int shiftMinutes) throws SQLException {
+        long shift = shiftMinutes * 60_000L;
+        rewrite(taskIds, (task, recordVersion) -> put(recordVersion, task.getId(), task.getName(), task.getDescription(),
+                task.getStartDate().getTime() + shift, task.getEndDate().getTime() + shift, statusCode(task.getStatus())));
+    }
+
+    @Override
+    public void deleteTasks(long[] taskIds) throws SQLException {
+        writeBatch(List.of(), taskIds);
+    }
+
+    // Like an UPDATE, a task that no longer exists is skipped; the whole call shares one version
+    @Override
+    public void writeBatch(List<Task> updates, long[] deletedIds) throws SQLException {
+        byte[] statusCodes = new byte[updates.size()];
+        for (int i = 0; i < statusCodes.length; i++) {
+            statusCodes[i] = statusCode(updates.get(i).getStatus());
+            checkSize(updates.get(i).getName(), updates.get(i).getDescription());
+        }
+        lock.writeLock().lock();
+        try {
+            long start = log.writePosition;
+            long batchVersion = version + 1;
+            boolean wrote = false;
+            for (int i = 0; i < statusCodes.length; i++) {
+                Task task = updates.get(i);
+                if (!offsets.containsKey(task.getId())) continue;
+                put(batchVersion, task.getId(), task.getName(), task.getDescription(),
+                        task.getStartDate().getTime(), task.getEndDate().getTime(), statusCodes[i]);
+                wrote = true;
+            }
+            for (long taskId : deletedIds) {
+                if (!offsets.containsKey(taskId)) continue;
+                delete(batchVersion, taskId);
+                wrote = true;
+            }
+            if (wrote) {
+                version = batchVersion;
+                log.force(start, log.writePosition);
+            }
+        } catch (IOException e) {
+            throw writeFailed(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        maybeCompact();
+    }
+
+    @Override
+    public boolean isKnownStatus(String status) {
+        for (String known : TaskManager.TASK_STATUSES) {
+            if (known.equals(status)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            if (!lockChannel.isOpen()) return;
+            log.force(0, log.writePosition);
+            log.channel.close();
+            fileLock.release();
+            lockChannel.close();
+        } catch (IOException ignored) {
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private interface Rewrite {
+        void apply(Task task, long recordVersion) throws IOException, SQLException;
+    }
+
+    // Re-appends the current record of each existing task with some fields changed, under one version
+    private void rewrite(long[] taskIds, Rewrite rewrite) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            long start = log.writePosition;
+            long batchVersion = version + 1;
+            for (long taskId : taskIds) {
+                int slot = offsets.get(taskId);
+                if (slot < 0) continue;
+                rewrite.apply(log.readTask((long) slot * ALIGNMENT), batchVersion);
+                version = batchVersion;
+            }
+            log.force(start, log.writePosition);
+        } catch (IOException e) {
+            throw writeFailed(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        maybeCompact();
+    }
+
+    private void put(long recordVersion, long taskId, String name, String description, long start, long end, byte status)
+            throws IOException, SQLException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] descriptionBytes = (description != null ? description : "").getBytes(StandardCharsets.UTF_8);
+        int length = PUT_FIXED_BYTES + nameBytes.length + descriptionBytes.length;
+        if (length > MAX_BODY) throw tooLarge();
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(PUT).putLong(recordVersion).putLong(taskId);
+        body.putInt(nameBytes.length).put(nameBytes);
+        body.putInt(descriptionBytes.length).put(descriptionBytes);
+        body.putLong(start).putLong(end).put(status).putLong(System.currentTimeMillis());
+        long offset = log.append(frame(body.array()));
+        index(taskId, offset);
+        recordChange(recordVersion, taskId);
+    }
+
+    private void delete(long recordVersion, long taskId) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(1 + 8 + 8);
+        body.put(DELETE).putLong(recordVersion).putLong(taskId);
+        long offset = log.append(frame(body.array()));
+        int slot = offsets.remove(taskId);
+        if (slot >= 0) {
+            int size = log.frameSize((long) slot * ALIGNMENT);
+            liveBytes -= size;
+            garbageBytes += size;
+        }
+        liveBytes += log.frameSize(offset);
+        recordChange(recordVersion, taskId);
+    }
+
+    private void index(long taskId, long offset) {
+        int previous = offsets.get(taskId);
+        if (previous >= 0) {
+            int size = log.frameSize((long) previous * ALIGNMENT);
+            liveBytes -= size;
+            garbageBytes += size;
+        }
+        offsets.put(taskId, (int) (offset / ALIGNMENT));
+        liveBytes += log.frameSize(offset);
+    }
+
+    // A compacted log holds its tombstones after the live records, so replay can see versions out of order
+    private void sortChanges() {
+        long[][] changes = new long[changeCount][];
+        for (int i = 0; i < changeCount; i++) {
+            changes[i] = new long[] { changeVersions[i], changeIds[i] };
+        }
+        Arrays.sort(changes, Comparator.comparingLong((long[] change) -> change[0]));
+        for (int i = 0; i < changeCount; i++) {
+            changeVersions[i] = changes[i][0];
+            changeIds[i] = changes[i][1];
+        }
+    }
+
+    private void recordChange(long changeVersion, long taskId) {
+        if (changeCount == changeVersions.length) {
+            compactChanges();
+            if (changeCount * 2 > changeVersions.length) {
+                changeVersions = Arrays.copyOf(changeVersions, changeVersions.length * 2);
+                changeIds = Arrays.copyOf(changeIds, changeIds.length * 2);
+            }
+        }
+        changeVersions[changeCount] = changeVersion;
+        changeIds[changeCount] = taskId;
+        changeCount++;
+    }
+
+    // Keeps only the latest change of each task, which is all getChangesSince reports anyway
+    private void compactChanges() {
+        LongIntHashMap seen = new LongIntHashMap(changeCount, -1);
+        int kept = changeCount;
+        for (int i = changeCount - 1; i >= 0; i--) {
+            if (seen.containsKey(changeIds[i])) continue;
+            seen.put(changeIds[i], 1);
+            kept--;
+            changeVersions[kept] = changeVersions[i];
+            changeIds[kept] = changeIds[i];
+        }
+        System.arraycopy(changeVersions, kept, changeVersions, 0, changeCount - kept);
+        System.arraycopy(changeIds, kept, changeIds, 0, changeCount - kept);
+        changeCount -= kept;
+    }
+
+    private void replay() throws IOException {
+        long position = 0;
+        while (position < log.mappedLength()) {
+            int length = log.lengthAt(position);
+            if (length == SKIP_TO_NEXT_CHUNK) {
+                position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+                continue;
+            }
+            // MAX_BODY is only enforced on write: a record the store accepted, even before that check, is never torn
+            if (length <= 0 || !log.checksumMatches(position)) {
+                // End of the log, or the torn tail of an interrupted append: clear it so it cannot be misread later
+                if (length != 0) log.clearChunkFrom(position);
+                break;
+            }
+            ByteBuffer body = ByteBuffer.wrap(log.body(position));
+            byte op = body.get();
+            long recordVersion = body.getLong();
+            long taskId = body.getLong();
+            version = Math.max(version, recordVersion);
+            if (op == PUT) {
+                index(taskId, position);
+                recordChange(recordVersion, taskId);
+                nextTaskId = Math.max(nextTaskId, taskId + 1);
+            } else if (op == DELETE) {
+                int slot = offsets.remove(taskId);
+                if (slot >= 0) {
+                    int size = log.frameSize((long) slot * ALIGNMENT);
+                    liveBytes -= size;
+                    garbageBytes += size;
+                }
+                liveBytes += log.frameSize(position);
+                recordChange(recordVersion, taskId);
+            } else if (op == META) {
+                nextTaskId = Math.max(nextTaskId, body.getLong());
+                garbageBytes += log.frameSize(position);
+            }
+            position += log.frameSize(position);
+        }
+        log.writePosition = position;
+        sortChanges();
+    }
+
+    private void maybeCompact() {
+        lock.writeLock().lock();
+        try {
+            if (compacting || garbageBytes < COMPACT_MIN_GARBAGE || garbageBytes < liveBytes) return;
+            compacting = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException e) {
+                System.err.println("Task store compaction failed: " + e.getMessage());
+            } finally {
+                lock.writeLock().lock();
+                compacting = false;
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Copies the live records while writers carry on, then takes the write lock only to copy what they
+    // appended in the meantime and swap the files
+    private void compact() throws IOException {
+        Log source;
+        long copiedUpTo;
+        long[] liveOffsets;
+        long metaVersion;
+        long metaNextTaskId;
+        List<long[]> tombstones = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            source = log;
+            copiedUpTo = log.writePosition;
+            liveOffsets = new long[offsets.size()];
+            int[] count = { 0 };
+            offsets.forEach((taskId, slot) -> liveOffsets[count[0]++] = (long) slot * ALIGNMENT);
+            metaVersion = version;
+            metaNextTaskId = nextTaskId;
+            // Deletes stay on disk so a client holding an older version still learns about them
+            LongIntHashMap seen = new LongIntHashMap(-1);
+            for (int i = changeCount - 1; i >= 0; i--) {
+                if (offsets.containsKey(changeIds[i]) || seen.containsKey(changeIds[i])) continue;
+                seen.put(changeIds[i], 1);
+                tombstones.add(new long[] { changeVersions[i], changeIds[i] });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(liveOffsets);
+
+        Files.deleteIfExists(compactFile);
+        Log target = new Log(compactFile);
+        boolean swapped = false;
+        try {
+            LongIntHashMap newOffsets = new LongIntHashMap(liveOffsets.length, -1);
+            long newLiveBytes = 0;
+            ByteBuffer meta = ByteBuffer.allocate(1 + 8 + 8 + 8);
+            meta.put(META).putLong(metaVersion).putLong(0).putLong(metaNextTaskId);
+            long newGarbageBytes = target.frameSize(target.append(frame(meta.array())));
+            for (long offset : liveOffsets) {
+                long copied = target.append(source.frame(offset));
+                newOffsets.put(ByteBuffer.wrap(source.body(offset)).getLong(9), (int) (copied / ALIGNMENT));
+                newLiveBytes += target.frameSize(copied);
+            }
+            for (long[] tombstone : tombstones) {
+                ByteBuffer body = ByteBuffer.allocate(1 + 8 + 8);
+                body.put(DELETE).putLong(tombstone[0]).putLong(tombstone[1]);
+                newLiveBytes += target.frameSize(target.append(frame(body.array())));
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (long position = copiedUpTo; position < source.writePosition; ) {
+                    int length = source.lengthAt(position);
+                    if (length == SKIP_TO_NEXT_CHUNK) {
+                        position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+                        continue;
+                    }
+                    ByteBuffer body = ByteBuffer.wrap(source.body(position));
+                    byte op = body.get();
+                    long taskId = body.getLong(9);
+                    long copied = target.append(source.frame(position));
+                    int size = target.frameSize(copied);
+                    int previous = op == PUT ? newOffsets.get(taskId) : newOffsets.remove(taskId);
+                    if (previous >= 0) {
+                        int previousSize = target.frameSize((long) previous * ALIGNMENT);
+                        newLiveBytes -= previousSize;
+                        newGarbageBytes += previousSize;
+                    }
+                    if (op == PUT) {
+                        newOffsets.put(taskId, (int) (copied / ALIGNMENT));
+                    }
+                    newLiveBytes += size;
+                    position += source.frameSize(position);
+                }
+                target.force(0, target.writePosition);
+                Files.move(compactFile, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                swapped = true;
+                log = target;
+                offsets = newOffsets;
+                liveBytes = newLiveBytes;
+                garbageBytes = newGarbageBytes;
+                compactChanges();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            source.channel.close();
+        } finally {
+            if (!swapped) {
+                target.channel.close();
+                Files.deleteIfExists(compactFile);
+            }
+        }
+    }
+
+    private static byte statusCode(String status) throws SQLException {
+        for (int i = 0; i < TaskManager.TASK_STATUSES.length; i++) {
+            if (TaskManager.TASK_STATUSES[i].equals(status)) return (byte) i;
+        }
+        throw new SQLException("Unknown task status '" + status + "'");
+    }
+
+    // Checked before anything is appended, so a batch is never left half written by a record put() would refuse
+    private static void checkSize(String name, String description) throws SQLException {
+        long chars = (long) name.length() + (description != null ? description.length() : 0);
+        if (PUT_FIXED_BYTES + chars * 3 <= MAX_BODY) return;
+        long bytes = name.getBytes(StandardCharsets.UTF_8).length
+                + (description != null ? description.getBytes(StandardCharsets.UTF_8).length : 0);
+        if (PUT_FIXED_BYTES + bytes > MAX_BODY) throw tooLarge();
+    }
+
+    private static SQLException tooLarge() {
+        return new SQLException("Task is larger than the " + (MAX_BODY >> 20) + " MB the task store keeps per record");
+    }
+
+    private static SQLException writeFailed(IOException e) {
+        return new SQLException("Task store write failed: " + e.getMessage(), e);
+    }
+
+    // [length][body][crc32 of body], padded to ALIGNMENT
+    private static byte[] frame(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer frame = ByteBuffer.allocate(align(4 + body.length + 4));
+        frame.putInt(body.length).put(body).putInt((int) crc.getValue());
+        return frame.array();
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static final class TaskView {
+        final Log log;
+        final long version;
+        final Task[] tasks;
+        final long[] offsets; // record offset of each task, to tell which ones a rebuild can reuse
+
+        TaskView(Log log, long version, Task[] tasks, long[] offsets) {
+            this.log = log;
+            this.version = version;
+            this.tasks = tasks;
+            this.offsets = offsets;
+        }
+    }
+
+    // One log file mapped CHUNK_SIZE bytes at a time; a frame never straddles two chunks
+    private static final class Log {
+        private final FileChannel channel;
+        private volatile MappedByteBuffer[] chunks;
+        private long writePosition;
+
+        Log(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int count = (int) ((channel.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * CHUNK_SIZE, CHUNK_SIZE);
+            }
+            chunks = mapped;
+        }
+
+        long mappedLength() {
+            return (long) chunks.length * CHUNK_SIZE;
+        }
+
+        // Not durable by itself: writers force the range they appended once the whole operation is in the log
+        long append(byte[] frame) throws IOException {
+            if (writePosition % CHUNK_SIZE + frame.length > CHUNK_SIZE) {
+                chunk(writePosition).putInt((int) (writePosition % CHUNK_SIZE), SKIP_TO_NEXT_CHUNK);
+                writePosition = (writePosition / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            }
+            long offset = writePosition;
+            if (offset / ALIGNMENT > Integer.MAX_VALUE) throw new IOException("Task log is full");
+            int chunkIndex = (int) (offset / CHUNK_SIZE);
+            if (chunkIndex >= chunks.length) {
+                MappedByteBuffer[] grown = Arrays.copyOf(chunks, chunkIndex + 1);
+                grown[chunkIndex] = channel.map(FileChannel.MapMode.READ_WRITE, (long) chunkIndex * CHUNK_SIZE, CHUNK_SIZE);
+                chunks = grown;
+            }
+            chunks[chunkIndex].put((int) (offset % CHUNK_SIZE), frame);
+            writePosition = offset + frame.length;
+            return offset;
+        }
+
+        void force(long from, long to) {
+            MappedByteBuffer[] mapped = chunks;
+            for (long position = from; position < to; ) {
+                int chunkIndex = (int) (position / CHUNK_SIZE);
+                int start = (int) (position % CHUNK_SIZE);
+                int end = (int) Math.min(CHUNK_SIZE, to - (long) chunkIndex * CHUNK_SIZE);
+                mapped[chunkIndex].force(start, end - start);
+                position = (long) (chunkIndex + 1) * CHUNK_SIZE;
+            }
+        }
+
+        int lengthAt(long offset) {
+            return chunk(offset).getInt((int) (offset % CHUNK_SIZE));
+        }
+
+        int frameSize(long offset) {
+            return align(4 + lengthAt(offset) + 4);
+        }
+
+        byte[] body(long offset) {
+            byte[] body = new byte[lengthAt(offset)];
+            chunk(offset).get((int) (offset % CHUNK_SIZE) + 4, body);
+            return body;
+        }
+
+        byte[] frame(long offset) {
+            byte[] frame = new byte[frameSize(offset)];
+            chunk(offset).get((int) (offset % CHUNK_SIZE), frame);
+            return frame;
+        }
+
+        boolean checksumMatches(long offset) {
+            int length = lengthAt(offset);
+            if (offset % CHUNK_SIZE + 8L + length > CHUNK_SIZE) return false;
+            CRC32 crc = new CRC32();
+            crc.update(body(offset));
+            return chunk(offset).getInt((int) (offset % CHUNK_SIZE) + 4 + length) == (int) crc.getValue();
+        }
+
+        void clearChunkFrom(long offset) {
+            MappedByteBuffer chunk = chunk(offset);
+            for (int i = (int) (offset % CHUNK_SIZE); i < CHUNK_SIZE; i += 8) {
+                chunk.putLong(i, 0);
+            }
+            chunk.force();
+        }
+
+        Task readTask(long offset) {
+            ByteBuffer body = ByteBuffer.wrap(body(offset));
+            body.position(1 + 8);
+            long taskId = body.getLong();
+            String name = readString(body);
+            String description = readString(body);
+            long start = body.getLong();
+            long end = body.getLong();
+            byte status = body.get();
+            long updated = body.getLong();
+            return new Task(taskId, name, description, new Date(start), new Date(end), TaskManager.TASK_STATUSES[status], new Date(updated));
+        }
+
+        private MappedByteBuffer chunk(long offset) {
+            return chunks[(int) (offset / CHUNK_SIZE)];
+        }
+
+        private static String readString(ByteBuffer body) {
+            int length = body.getInt();
+            String value = new String(body.array(), body.position(), length, StandardCharsets.UTF_8);
+            body.position(body.position() + length);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+// Times every call into the store it wraps and counts the rows reads bring back, into TaskMetrics
+// histograms named "store.<operation>" and a StoreCall JFR event per call
+final class MeteredTaskStore implements TaskStore {
+    private final TaskStore store;
+
+    MeteredTaskStore(TaskStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Task> getTasks(String filter) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        List<Task> tasks = store.getTasks(filter);
+        end(event, "getTasks", started, tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public List<Task> getTaskPage(String filter, long afterUpdatedMillis, long afterTaskId, int limit) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        List<Task> tasks = store.getTaskPage(filter, afterUpdatedMillis, afterTaskId, limit);
+        end(event, "getTaskPage", started, tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public List<Task> getTasksDueBetween(long fromMillis, long toMillis) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        List<Task> tasks = store.getTasksDueBetween(fromMillis, toMillis);
+        end(event, "getTasksDueBetween", started, tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public long getCurrentVersion() throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        long version = store.getCurrentVersion();
+        end(event, "getCurrentVersion", started, -1);
+        return version;
+    }
+
+    @Override
+    public TaskDelta getChangesSince(long version) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        TaskDelta delta = store.getChangesSince(version);
+        end(event, "getChangesSince", started, delta.getChanged().size() + delta.getDeletedIds().size());
+        return delta;
+    }
+
+    @Override
+    public long addTask(String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        long taskId = store.addTask(name, description, startDate, endDate, status);
+        end(event, "addTask", started, -1);
+        return taskId;
+    }
+
+    @Override
+    public void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        store.updateTask(taskId, name, description, startDate, endDate, status);
+        end(event, "updateTask", started, -1);
+    }
+
+    @Override
+    public void deleteTask(long taskId) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        store.deleteTask(taskId);
+        end(event, "deleteTask", started, -1);
+    }
+
+    @Override
+    public void updateStatus(long[] taskIds, String status) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        store.updateStatus(taskIds, status);
+        end(event, "updateStatus", started, -1);
+    }
+
+    @Override
+    public void rescheduleTasks(long[] taskIds, int shiftMinutes) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        store.rescheduleTasks(taskIds, shiftMinutes);
+        end(event, "rescheduleTasks", started, -1);
+    }
+
+    @Override
+    public void deleteTasks(long[] taskIds) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        store.deleteTasks(taskIds);
+        end(event, "deleteTasks", started, -1);
+    }
+
+    @Override
+    public void writeBatch(List<Task> updates, long[] deletedIds) throws SQLException {
+        TaskMetrics.StoreCallEvent event = begin();
+        long started = System.nanoTime();
+        store.writeBatch(updates, deletedIds);
+        end(event, "writeBatch", started, -1);
+    }
+
+    @Override
+    public boolean isKnownStatus(String status) throws SQLException {
+        return store.isKnownStatus(status);
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private static TaskMetrics.StoreCallEvent begin() {
+        TaskMetrics.StoreCallEvent event = new TaskMetrics.StoreCallEvent();
+        event.begin();
+        return event;
+    }
+
+    // rows is -1 for writes; failed calls are not recorded, their exception already says enough
+    private static void end(TaskMetrics.StoreCallEvent event, String operation, long startedNanos, int rows) {
+        TaskMetrics.record("store." + operation, TaskMetrics.MICROS, (System.nanoTime() - startedNanos) / 1000);
+        if (rows >= 0) {
+            TaskMetrics.record("store." + operation + ".rows", TaskMetrics.ROWS, rows);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+}
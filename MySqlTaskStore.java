@@ -0,0 +1,336 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The MySQL store: task rows in `tasks`, status ids from TaskStatusRegistry and versions from TaskChangeLog
+class MySqlTaskStore implements TaskStore {
+    private static final String TASK_COLUMNS = "SELECT t.task_id, t.name, t.description, t.start_date, t.end_date, t.status_id, t.updated_at FROM tasks t";
+    private static final int IN_CHUNK = 1000;
+
+    @Override
+    public List<Task> getTasks(String filter) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        List<Task> tasks = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(listQuery(!filter.equals(TaskManager.FILTER_ALL)))) {
+            if (!filter.equals(TaskManager.FILTER_ALL)) {
+                stmt.setInt(1, TaskStatusRegistry.get().idOf(filter));
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                tasks.add(readTask(rs));
+            }
+        }
+        return tasks;
+    }
+
+    // Keyset pagination on (updated_at, task_id); a negative afterTaskId asks for the first page
+    @Override
+    public List<Task> getTaskPage(String filter, long afterUpdatedMillis, long afterTaskId, int limit) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        boolean filtered = !filter.equals(TaskManager.FILTER_ALL);
+        boolean firstPage = afterTaskId < 0;
+        List<Task> tasks = new ArrayList<>(limit);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(pageQuery(filtered, !firstPage))) {
+            int index = 1;
+            if (filtered) {
+                stmt.setInt(index++, TaskStatusRegistry.get().idOf(filter));
+            }
+            if (!firstPage) {
+                Timestamp after = new Timestamp(afterUpdatedMillis);
+                stmt.setTimestamp(index++, after);
+                stmt.setTimestamp(index++, after);
+                stmt.setLong(index++, afterTaskId);
+            }
+            stmt.setInt(index, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                tasks.add(readTask(rs));
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> getTasksDueBetween(long fromMillis, long toMillis) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        List<Task> tasks = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(dueQuery())) {
+            stmt.setTimestamp(1, new Timestamp(fromMillis));
+            stmt.setTimestamp(2, new Timestamp(toMillis));
+            TaskStatusRegistry statuses = TaskStatusRegistry.get();
+            stmt.setInt(3, statuses.idOf(Task.FINISHED_STATUSES[0]));
+            stmt.setInt(4, statuses.idOf(Task.FINISHED_STATUSES[1]));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                tasks.add(readTask(rs));
+            }
+        }
+        return tasks;
+    }
+
+    // The query text is shared with SchemaMigrator's EXPLAIN check, so that checks what actually runs
+    static String listQuery(boolean filtered) {
+        return filtered
+                ? TASK_COLUMNS + " WHERE t.status_id = ? ORDER BY t.updated_at DESC"
+                : TASK_COLUMNS + " ORDER BY t.updated_at DESC";
+    }
+
+    // Ranges over idx_tasks_end_date, so only tasks that have not ended yet are read
+    static String dueQuery() {
+        return TASK_COLUMNS + " WHERE t.end_date > ? AND t.start_date < ? AND t.status_id NOT IN (?, ?)";
+    }
+
+    static String pageQuery(boolean filtered, boolean afterKey) {
+        StringBuilder query = new StringBuilder(TASK_COLUMNS);
+        if (filtered) {
+            query.append(" WHERE t.status_id = ?");
+        }
+        if (afterKey) {
+            query.append(filtered ? " AND" : " WHERE").append(" (t.updated_at < ? OR (t.updated_at = ? AND t.task_id < ?))");
+        }
+        return query.append(" ORDER BY t.updated_at DESC, t.task_id DESC LIMIT ?").toString();
+    }
+
+    @Override
+    public long getCurrentVersion() throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return TaskChangeLog.currentVersion(conn);
+        }
+    }
+
+    // One range scan of the change log joined to the current rows; a task logged several times is reported
+    // once, in the position of its latest change, and a missing row means it was deleted. The pruning check runs
+    // after the scan, so entries pruned while it ran are noticed too.
+    @Override
+    public TaskDelta getChangesSince(long version) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        Map<Long, Task> changed = new LinkedHashMap<>();
+        Set<Long> deletedIds = new LinkedHashSet<>();
+        long newVersion = version;
+        String query = "SELECT c.version, c.task_id AS changed_id, t.task_id, t.name, t.description, t.start_date, t.end_date, t.status_id, t.updated_at"
+                + " FROM task_changes c LEFT JOIN tasks t ON t.task_id = c.task_id WHERE c.version > ? ORDER BY c.version";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, version);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                long taskId = rs.getLong("changed_id");
+                newVersion = Math.max(newVersion, rs.getLong("version"));
+                changed.remove(taskId);
+                if (rs.getObject("task_id") == null) {
+                    deletedIds.add(taskId);
+                } else {
+                    deletedIds.remove(taskId);
+                    changed.put(taskId, readTask(rs));
+                }
+            }
+            if (TaskChangeLog.mayHaveMissed(conn, version)) return TaskDelta.reloadRequired(version);
+        }
+        return new TaskDelta(new ArrayList<>(changed.values()), new ArrayList<>(deletedIds), newVersion);
+    }
+
+    // Every write logs the tasks it touched to TaskChangeLog in the same transaction
+    @Override
+    public long addTask(String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        String query = "INSERT INTO tasks (name, description, start_date, end_date, status_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, NOW(), NOW())";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long taskId;
+            try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, name);
+                stmt.setString(2, description.isEmpty() ? null : description);
+                stmt.setTimestamp(3, new java.sql.Timestamp(startDate.getTime()));
+                stmt.setTimestamp(4, new java.sql.Timestamp(endDate.getTime()));
+                stmt.setInt(5, TaskStatusRegistry.get().idOf(status));
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (!keys.next()) throw new SQLException("No task_id generated for new task");
+                    taskId = keys.getLong(1);
+                }
+            }
+            TaskChangeLog.record(conn, TaskChangeLog.nextVersion(conn), TaskChangeLog.UPSERT, taskId);
+            conn.commit();
+            return taskId;
+        }
+    }
+
+    @Override
+    public void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        String query = "UPDATE tasks SET name = ?, description = ?, start_date = ?, end_date = ?, status_id = ?, updated_at = NOW() WHERE task_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, name);
+                stmt.setString(2, description.isEmpty() ? null : description);
+                stmt.setTimestamp(3, new java.sql.Timestamp(startDate.getTime()));
+                stmt.setTimestamp(4, new java.sql.Timestamp(endDate.getTime()));
+                stmt.setInt(5, TaskStatusRegistry.get().idOf(status));
+                stmt.setLong(6, taskId);
+                stmt.executeUpdate();
+            }
+            TaskChangeLog.record(conn, TaskChangeLog.nextVersion(conn), TaskChangeLog.UPSERT, taskId);
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void deleteTask(long taskId) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tasks WHERE task_id = ?")) {
+                stmt.setLong(1, taskId);
+                stmt.executeUpdate();
+            }
+            TaskChangeLog.record(conn, TaskChangeLog.nextVersion(conn), TaskChangeLog.DELETE, taskId);
+            conn.commit();
+        }
+    }
+
+    // Bulk writes run as one transaction, with at most IN_CHUNK ids per statement
+    @Override
+    public void updateStatus(long[] taskIds, String status) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        int statusId = TaskStatusRegistry.get().idOf(status);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long version = TaskChangeLog.nextVersion(conn);
+            for (int from = 0; from < taskIds.length; from += IN_CHUNK) {
+                int to = Math.min(taskIds.length, from + IN_CHUNK);
+                String query = "UPDATE tasks SET status_id = ?, updated_at = NOW() WHERE task_id IN " + placeholders(to - from);
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setInt(1, statusId);
+                    bindIds(stmt, 2, taskIds, from, to);
+                    stmt.executeUpdate();
+                }
+                TaskChangeLog.record(conn, version, TaskChangeLog.UPSERT, taskIds, from, to);
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void rescheduleTasks(long[] taskIds, int shiftMinutes) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long version = TaskChangeLog.nextVersion(conn);
+            for (int from = 0; from < taskIds.length; from += IN_CHUNK) {
+                int to = Math.min(taskIds.length, from + IN_CHUNK);
+                String query = "UPDATE tasks SET start_date = start_date + INTERVAL ? MINUTE, end_date = end_date + INTERVAL ? MINUTE, updated_at = NOW() WHERE task_id IN " + placeholders(to - from);
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setInt(1, shiftMinutes);
+                    stmt.setInt(2, shiftMinutes);
+                    bindIds(stmt, 3, taskIds, from, to);
+                    stmt.executeUpdate();
+                }
+                TaskChangeLog.record(conn, version, TaskChangeLog.UPSERT, taskIds, from, to);
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void deleteTasks(long[] taskIds) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long version = TaskChangeLog.nextVersion(conn);
+            for (int from = 0; from < taskIds.length; from += IN_CHUNK) {
+                int to = Math.min(taskIds.length, from + IN_CHUNK);
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tasks WHERE task_id IN " + placeholders(to - from))) {
+                    bindIds(stmt, 1, taskIds, from, to);
+                    stmt.executeUpdate();
+                }
+                TaskChangeLog.record(conn, version, TaskChangeLog.DELETE, taskIds, from, to);
+            }
+            conn.commit();
+        }
+    }
+
+    // Full-row updates and deletes from the write-behind queue, committed as one change-log version
+    @Override
+    public void writeBatch(List<Task> updates, long[] deletedIds) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        TaskStatusRegistry statuses = TaskStatusRegistry.get();
+        String query = "UPDATE tasks SET name = ?, description = ?, start_date = ?, end_date = ?, status_id = ?, updated_at = NOW() WHERE task_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            long version = TaskChangeLog.nextVersion(conn);
+            if (!updates.isEmpty()) {
+                long[] updatedIds = new long[updates.size()];
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < updatedIds.length; i++) {
+                        Task task = updates.get(i);
+                        stmt.setString(1, task.getName());
+                        stmt.setString(2, task.getDescription().isEmpty() ? null : task.getDescription());
+                        stmt.setTimestamp(3, new Timestamp(task.getStartDate().getTime()));
+                        stmt.setTimestamp(4, new Timestamp(task.getEndDate().getTime()));
+                        stmt.setInt(5, statuses.idOf(task.getStatus()));
+                        stmt.setLong(6, task.getId());
+                        stmt.addBatch();
+                        updatedIds[i] = task.getId();
+                    }
+                    stmt.executeBatch();
+                }
+                TaskChangeLog.record(conn, version, TaskChangeLog.UPSERT, updatedIds, 0, updatedIds.length);
+            }
+            for (int from = 0; from < deletedIds.length; from += IN_CHUNK) {
+                int to = Math.min(deletedIds.length, from + IN_CHUNK);
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tasks WHERE task_id IN " + placeholders(to - from))) {
+                    bindIds(stmt, 1, deletedIds, from, to);
+                    stmt.executeUpdate();
+                }
+                TaskChangeLog.record(conn, version, TaskChangeLog.DELETE, deletedIds, from, to);
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public boolean isKnownStatus(String status) throws SQLException {
+        return TaskStatusRegistry.get().contains(status);
+    }
+
+    @Override
+    public void close() {
+        DatabaseConnection.shutdown();
+    }
+
+    static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3 + 2).append('(');
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+
+    static void bindIds(PreparedStatement stmt, int firstIndex, long[] taskIds, int from, int to) throws SQLException {
+        for (int i = from; i < to; i++) {
+            stmt.setLong(firstIndex + i - from, taskIds[i]);
+        }
+    }
+
+    static Task readTask(ResultSet rs) throws SQLException {
+        return new Task(rs.getLong("task_id"), rs.getString("name"),
+                rs.getString("description") != null ? rs.getString("description") : "",
+                rs.getTimestamp("start_date"), rs.getTimestamp("end_date"), TaskStatusRegistry.get().nameOf(rs.getInt("status_id")),
+                rs.getTimestamp("updated_at"));
+    }
+}
@@ -0,0 +1,141 @@
+import javax.swing.*;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Collects alarm events and shows them in one reusable, non-modal window. Events arriving within the
+// batch window are summarised together ("37 tasks ended"), and the window is refreshed at most once per
+// display interval, so an alarm storm costs the EDT a single repaint instead of a chain of modal dialogs.
+class NotificationCenter {
+    private static final int BATCH_WINDOW_MILLIS = 500;
+    private static final int MIN_DISPLAY_INTERVAL_MILLIS = 2000;
+    private static final int MAX_LISTED_TASKS = 5;
+
+    private final Frame owner;
+    private final List<String> startedTasks = new ArrayList<>();
+    private final List<String> endedTasks = new ArrayList<>();
+    private final Timer flushTimer;
+    private long lastShownMillis;
+    private volatile long coalescedCount; // written on the EDT only, read by the metrics dump
+
+    private JDialog window;
+    private JLabel titleLabel;
+    private JLabel messageLabel;
+
+    NotificationCenter(Frame owner) {
+        this.owner = owner;
+        flushTimer = new Timer(BATCH_WINDOW_MILLIS, e -> flush());
+        flushTimer.setRepeats(false);
+    }
+
+    void taskStarted(String taskName) {
+        post(startedTasks, taskName);
+    }
+
+    void taskEnded(String taskName) {
+        post(endedTasks, taskName);
+    }
+
+    // Events folded into a batch summary instead of getting a window of their own
+    long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    private void post(List<String> pending, String taskName) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> post(pending, taskName));
+            return;
+        }
+        pending.add(taskName);
+        if (!flushTimer.isRunning()) {
+            long untilAllowed = lastShownMillis + MIN_DISPLAY_INTERVAL_MILLIS - System.currentTimeMillis();
+            flushTimer.setInitialDelay((int) Math.max(BATCH_WINDOW_MILLIS, untilAllowed));
+            flushTimer.start();
+        }
+    }
+
+    private void flush() {
+        int total = startedTasks.size() + endedTasks.size();
+        if (total == 0) return;
+        coalescedCount += total - 1;
+        String title;
+        if (total == 1) {
+            title = startedTasks.isEmpty() ? "Task End" : "Task Start";
+        } else {
+            title = "Task Alarms";
+        }
+        StringBuilder message = new StringBuilder("<html>");
+        appendSummary(message, startedTasks, "started");
+        appendSummary(message, endedTasks, "ended");
+        message.append("</html>");
+        startedTasks.clear();
+        endedTasks.clear();
+
+        Toolkit.getDefaultToolkit().beep();
+        showWindow(title, message.toString());
+        lastShownMillis = System.currentTimeMillis();
+    }
+
+    private void appendSummary(StringBuilder message, List<String> tasks, String verb) {
+        if (tasks.isEmpty()) return;
+        if (message.length() > "<html>".length()) {
+            message.append("<br><br>");
+        }
+        if (tasks.size() == 1) {
+            message.append("Task ").append(verb).append(": ").append(escape(tasks.get(0)));
+            return;
+        }
+        message.append("<b>").append(tasks.size()).append(" tasks ").append(verb).append("</b>");
+        for (int i = 0; i < Math.min(MAX_LISTED_TASKS, tasks.size()); i++) {
+            message.append("<br>&bull; ").append(escape(tasks.get(i)));
+        }
+        if (tasks.size() > MAX_LISTED_TASKS) {
+            message.append("<br>and ").append(tasks.size() - MAX_LISTED_TASKS).append(" more");
+        }
+    }
+
+    private void showWindow(String title, String message) {
+        if (window == null) {
+            createWindow();
+        }
+        titleLabel.setText(title);
+        messageLabel.setText(message);
+        window.pack();
+        if (!window.isVisible()) {
+            window.setLocationRelativeTo(owner);
+            window.setVisible(true);
+        }
+        window.toFront();
+    }
+
+    private void createWindow() {
+        window = new JDialog(owner, "Task Alarms", false);
+        window.setType(Window.Type.UTILITY);
+        window.setAlwaysOnTop(true);
+        window.setFocusableWindowState(false);
+        window.setMinimumSize(new Dimension(300, 120));
+        window.setLayout(new BorderLayout(10, 10));
+        ((JComponent) window.getContentPane()).setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        titleLabel = new JLabel();
+        titleLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
+        titleLabel.setIcon(UIManager.getIcon("OptionPane.informationIcon"));
+        messageLabel = new JLabel();
+        messageLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
+        messageLabel.setForeground(new Color(33, 33, 33));
+        JButton dismissButton = new JButton("Dismiss");
+        dismissButton.setFocusPainted(false);
+        dismissButton.addActionListener(e -> window.setVisible(false));
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.add(dismissButton);
+        window.add(titleLabel, BorderLayout.NORTH);
+        window.add(messageLabel, BorderLayout.CENTER);
+        window.add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Lazy table model for very large task lists: pages are fetched with keyset pagination on
+// (updated_at, task_id) as Swing asks for their rows, and only the most recently painted pages stay in memory.
+class PagedTaskTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_CACHED_PAGES = 20;
+    private final TaskRepository repository;
+    private final SimpleDateFormat dateFormat;
+    private final Consumer<Throwable> errorHandler;
+
+    private final Map<Integer, Task[]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Task[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loadingPages = new HashSet<>();
+    // Keyset of the last row before page n; two longs per page is all that is kept for evicted pages
+    private long[] pageAfterUpdated = new long[64];
+    private long[] pageAfterId = new long[64];
+    private int knownPages;
+    private int rowCount;
+    private String filter = TaskManager.FILTER_ALL;
+    private long generation;
+
+    PagedTaskTableModel(TaskRepository repository, SimpleDateFormat dateFormat, Consumer<Throwable> errorHandler) {
+        this.repository = repository;
+        this.dateFormat = dateFormat;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return TaskTableModel.COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return TaskTableModel.COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int page = row / PAGE_SIZE;
+        Task[] tasks = pages.get(page);
+        // Prefetch the following page while this one is on screen
+        if (page + 1 < knownPages && !pages.containsKey(page + 1)) {
+            loadPage(page + 1);
+        }
+        int index = row % PAGE_SIZE;
+        if (tasks == null) {
+            loadPage(page);
+            return column == 0 ? "Loading..." : "";
+        }
+        // A reloaded page can come back shorter than before; its missing rows stay blank until the count catches up
+        if (index >= tasks.length) {
+            return "";
+        }
+        Task task = tasks[index];
+        switch (column) {
+            case 0:
+                return task.getName();
+            case 1:
+                return task.getDescription();
+            case 2:
+                return dateFormat.format(task.getStartDate());
+            case 3:
+                return dateFormat.format(task.getEndDate());
+            default:
+                return task.getStatus();
+        }
+    }
+
+    // Drops every page and starts again from the newest row
+    void reset(String filter) {
+        this.filter = filter;
+        generation++;
+        pages.clear();
+        loadingPages.clear();
+        knownPages = 1;
+        rowCount = 0;
+        fireTableDataChanged();
+        loadPage(0);
+    }
+
+    // Fetches the pages in memory again where they are, for writes made elsewhere: the row count, scroll position
+    // and selection stay as they are. Pages are fetched in order, so each starts after the row the one before it
+    // now ends with; background reloads stay quiet on errors and the next change tries again.
+    void reloadCachedPages() {
+        List<Integer> cached = new ArrayList<>(pages.keySet());
+        Collections.sort(cached);
+        reloadPages(cached, 0, generation);
+    }
+
+    private void reloadPages(List<Integer> cached, int next, long reloadGeneration) {
+        if (next >= cached.size()) return;
+        int page = cached.get(next);
+        if (!loadingPages.add(page)) {
+            reloadPages(cached, next + 1, reloadGeneration);
+            return;
+        }
+        long afterUpdated = page == 0 ? 0 : pageAfterUpdated[page];
+        long afterId = page == 0 ? -1 : pageAfterId[page];
+        repository.getTaskPageAsync(filter, afterUpdated, afterId, PAGE_SIZE).whenComplete((tasks, error) -> SwingUtilities.invokeLater(() -> {
+            if (reloadGeneration != generation) return;
+            loadingPages.remove(page);
+            if (error != null) return;
+            pageLoaded(page, tasks);
+            reloadPages(cached, next + 1, reloadGeneration);
+        }));
+    }
+
+    // Null while the row's page is not in memory
+    Task getTaskAt(int row) {
+        Task[] tasks = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return tasks != null && index < tasks.length ? tasks[index] : null;
+    }
+
+    private void loadPage(int page) {
+        if (!loadingPages.add(page)) return;
+        long loadGeneration = generation;
+        long afterUpdated = page == 0 ? 0 : pageAfterUpdated[page];
+        long afterId = page == 0 ? -1 : pageAfterId[page];
+        repository.getTaskPageAsync(filter, afterUpdated, afterId, PAGE_SIZE).whenComplete((tasks, error) -> SwingUtilities.invokeLater(() -> {
+            if (loadGeneration != generation) return;
+            loadingPages.remove(page);
+            if (error != null) {
+                errorHandler.accept(error);
+            } else {
+                pageLoaded(page, tasks);
+            }
+        }));
+    }
+
+    private void pageLoaded(int page, List<Task> tasks) {
+        Task[] rows = tasks.toArray(new Task[0]);
+        pages.put(page, rows);
+        int firstRow = page * PAGE_SIZE;
+        int lastRow = firstRow + rows.length;
+        if (rows.length == PAGE_SIZE) {
+            // Also refreshes the key of a page already known, in case this one was reloaded with other rows
+            if (page + 1 == pageAfterId.length) {
+                pageAfterUpdated = Arrays.copyOf(pageAfterUpdated, pageAfterUpdated.length * 2);
+                pageAfterId = Arrays.copyOf(pageAfterId, pageAfterId.length * 2);
+            }
+            Task last = rows[rows.length - 1];
+            pageAfterUpdated[page + 1] = last.getUpdatedAt().getTime();
+            pageAfterId[page + 1] = last.getId();
+            knownPages = Math.max(knownPages, page + 2);
+        } else if (page + 1 < knownPages || lastRow < rowCount) {
+            // A short page is the last one; a reload can find that rows were deleted since the count was taken
+            knownPages = page + 1;
+            pages.keySet().removeIf(cached -> cached > page);
+            if (lastRow < rowCount) {
+                int oldCount = rowCount;
+                rowCount = lastRow;
+                fireTableRowsDeleted(lastRow, oldCount - 1);
+            }
+        }
+        if (lastRow > rowCount) {
+            int oldCount = rowCount;
+            rowCount = lastRow;
+            fireTableRowsInserted(oldCount, rowCount - 1);
+        } else if (rows.length > 0) {
+            fireTableRowsUpdated(firstRow, lastRow - 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Brings the MySQL schema to the current version on first use. Applied versions are recorded in schema_version
+// and migrations only ever get appended, so a database set up before this runner existed is adopted by the first
+// ones (every statement there is IF NOT EXISTS) and only gets the missing pieces.
+// -Dtaskmanager.db.migrate=false leaves a database managed elsewhere alone, change log pruning included.
+final class SchemaMigrator {
+    private static final String LOCK_NAME = "task_manager_schema";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+    private static final Migration[] MIGRATIONS = {
+        new Migration(1, "Task and status tables", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS task_status (status_id INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "status_name VARCHAR(50) NOT NULL UNIQUE)");
+                for (String status : TaskManager.TASK_STATUSES) {
+                    stmt.execute("INSERT INTO task_status (status_name) SELECT '" + status + "' FROM DUAL "
+                            + "WHERE NOT EXISTS (SELECT 1 FROM task_status WHERE status_name = '" + status + "')");
+                }
+                stmt.execute("CREATE TABLE IF NOT EXISTS tasks (task_id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                        + "description TEXT, start_date DATETIME NOT NULL, end_date DATETIME NOT NULL, status_id INT NOT NULL, "
+                        + "created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                        + "CONSTRAINT fk_tasks_status FOREIGN KEY (status_id) REFERENCES task_status (status_id))");
+            }
+        }),
+        new Migration(2, "Change feed tables", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS task_version (id TINYINT PRIMARY KEY, version BIGINT NOT NULL)");
+                stmt.execute("INSERT IGNORE INTO task_version (id, version) VALUES (1, 0)");
+                stmt.execute("CREATE TABLE IF NOT EXISTS task_changes (version BIGINT NOT NULL, task_id BIGINT NOT NULL, op CHAR(1) NOT NULL, "
+                        + "changed_at DATETIME NOT NULL, PRIMARY KEY (version, task_id), INDEX idx_task_changes_changed_at (changed_at))");
+            }
+        }),
+        // One index per query shape: the status filter and the keyset pages walk their index in ORDER BY order
+        // instead of sorting, and end-date ranges stop scanning the table
+        new Migration(3, "Indexes for the list, page and end-date queries", conn -> {
+            createIndexIfMissing(conn, "tasks", "idx_tasks_status_updated", "status_id, updated_at, task_id");
+            createIndexIfMissing(conn, "tasks", "idx_tasks_updated", "updated_at, task_id");
+            createIndexIfMissing(conn, "tasks", "idx_tasks_end_date", "end_date");
+        }),
+        // Completed and canceled tasks moved out of `tasks` by TaskArchiver, paged newest first by the history view
+        new Migration(4, "Task history table", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS tasks_history (task_id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                        + "description TEXT, start_date DATETIME NOT NULL, end_date DATETIME NOT NULL, status_id INT NOT NULL, "
+                        + "created_at DATETIME NOT NULL, updated_at DATETIME NOT NULL, archived_at DATETIME NOT NULL, "
+                        + "INDEX idx_tasks_history_updated (updated_at, task_id))");
+            }
+        }),
+    };
+
+    private static volatile boolean current;
+
+    private SchemaMigrator() {
+    }
+
+    // Cheap after the first call; every MySQL entry point goes through here before touching a table
+    static void ensureCurrent() throws SQLException {
+        if (current) return;
+        synchronized (SchemaMigrator.class) {
+            if (current) return;
+            if (Boolean.parseBoolean(System.getProperty("taskmanager.db.migrate", "true"))) {
+                try (Connection conn = DatabaseConnection.getConnection()) {
+                    migrate(conn);
+                    TaskChangeLog.prune(conn);
+                }
+            }
+            current = true;
+        }
+    }
+
+    // DDL commits implicitly in MySQL, so each migration is recorded right after it runs; the named lock keeps
+    // two clients starting together from applying the same one twice
+    static int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (version INT PRIMARY KEY, description VARCHAR(200) NOT NULL, "
+                    + "applied_at DATETIME NOT NULL)");
+        }
+        if (!namedLock(conn, "SELECT GET_LOCK('" + LOCK_NAME + "', " + LOCK_TIMEOUT_SECONDS + ")")) {
+            throw new SQLException("Timed out waiting for another client to finish migrating the schema");
+        }
+        try {
+            int version = appliedVersion(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= version) continue;
+                migration.step.apply(conn);
+                try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, NOW())")) {
+                    stmt.setInt(1, migration.version);
+                    stmt.setString(2, migration.description);
+                    stmt.executeUpdate();
+                }
+                version = migration.version;
+            }
+            return version;
+        } finally {
+            namedLock(conn, "SELECT RELEASE_LOCK('" + LOCK_NAME + "')");
+        }
+    }
+
+    static int appliedVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version");
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static boolean namedLock(Connection conn, String query) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(query);
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    // MySQL has no CREATE INDEX IF NOT EXISTS, and an adopted database may already carry one of these
+    private static void createIndexIfMissing(Connection conn, String table, String index, String columns) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1")) {
+            stmt.setString(1, table);
+            stmt.setString(2, index);
+            if (stmt.executeQuery().next()) return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    // --check-schema: migrates, then EXPLAINs the queries the indexes are for and fails if one of them still
+    // sorts or scans the whole table. Only the unfiltered full load is listed for reference; reading every row
+    // is what it is for.
+    static void main(String[] args) throws Exception {
+        int failures = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            System.out.println("Schema version " + migrate(conn));
+            TaskStatusRegistry statuses = TaskStatusRegistry.load(conn);
+            String status = String.valueOf(statuses.idOf(TaskManager.TASK_STATUSES[0]));
+            String now = "NOW()";
+            failures += explain(conn, "page, first", MySqlTaskStore.pageQuery(false, false), true, "100");
+            failures += explain(conn, "page, next", MySqlTaskStore.pageQuery(false, true), true, now, now, "1000", "100");
+            failures += explain(conn, "page by status, first", MySqlTaskStore.pageQuery(true, false), true, status, "100");
+            failures += explain(conn, "page by status, next", MySqlTaskStore.pageQuery(true, true), true, status, now, now, "1000", "100");
+            String completed = String.valueOf(statuses.idOf("Completed"));
+            String canceled = String.valueOf(statuses.idOf("Canceled"));
+            failures += explain(conn, "alarm horizon", MySqlTaskStore.dueQuery(), true, now, "NOW() + INTERVAL 2 HOUR", completed, canceled);
+            failures += explain(conn, "archive candidates", TaskArchiver.candidateQuery(), true, completed, "NOW() - INTERVAL 90 DAY");
+            failures += explain(conn, "history page", TaskArchiver.historyPageQuery(true), true, now, now, "1000", "100");
+            failures += explain(conn, "all tasks by status", MySqlTaskStore.listQuery(true), true, status);
+            explain(conn, "all tasks", MySqlTaskStore.listQuery(false), false);
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+        System.out.println(failures == 0 ? "OK" : failures + " quer" + (failures == 1 ? "y needs" : "ies need") + " attention");
+        if (failures > 0) System.exit(1);
+    }
+
+    // The placeholders are filled in with literals so EXPLAIN does not depend on server-side prepared statements
+    private static int explain(Connection conn, String label, String query, boolean enforced, String... values) throws SQLException {
+        StringBuilder sql = new StringBuilder("EXPLAIN ");
+        int next = 0;
+        for (char c : query.toCharArray()) {
+            if (c == '?') {
+                sql.append(values[next++]);
+            } else {
+                sql.append(c);
+            }
+        }
+        List<String> problems = new ArrayList<>();
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(sql.toString());
+            while (rs.next()) {
+                String type = rs.getString("type");
+                String key = rs.getString("key");
+                String extra = rs.getString("Extra");
+                plan.append(" [").append(rs.getString("table")).append(": type=").append(type).append(", key=").append(key)
+                        .append(", rows=").append(rs.getLong("rows")).append(extra == null ? "" : ", " + extra).append(']');
+                if ("ALL".equals(type)) problems.add("full table scan");
+                if (extra != null && extra.contains("Using filesort")) problems.add("filesort");
+            }
+        }
+        boolean failed = enforced && !problems.isEmpty();
+        System.out.println((failed ? "FAIL " : enforced ? "ok   " : "info ") + label + plan
+                + (failed ? " -> " + String.join(", ", problems) : ""));
+        return failed ? 1 : 0;
+    }
+
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
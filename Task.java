@@ -0,0 +1,89 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Date;
+
+class Task {
+    // Tasks in these statuses have no alarms, whatever their dates say
+    static final String[] FINISHED_STATUSES = { "Completed", "Canceled" };
+    // The tightest column sizes of any store: VARCHAR(255) and TEXT in MySQL, both well inside a file store record
+    static final int MAX_NAME_LENGTH = 255;
+    static final int MAX_DESCRIPTION_BYTES = 65_535;
+    // The order every list of tasks is shown in, the same as the stores' updated_at DESC, task_id DESC
+    static final Comparator<Task> NEWEST_FIRST = Comparator
+            .comparingLong((Task task) -> task.getUpdatedAt() != null ? task.getUpdatedAt().getTime() : 0)
+            .thenComparingLong(Task::getId).reversed();
+
+    private long id;
+    private String name;
+    private String description;
+    private Date startDate;
+    private Date endDate;
+    private String status;
+    private Date updatedAt;
+
+    public Task(long id, String name, String description, Date startDate, Date endDate, String status) {
+        this(id, name, description, startDate, endDate, status, null);
+    }
+
+    public Task(long id, String name, String description, Date startDate, Date endDate, String status, Date updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    boolean isFinished() {
+        return isFinished(status);
+    }
+
+    static boolean isFinished(String status) {
+        for (String finished : FINISHED_STATUSES) {
+            if (finished.equalsIgnoreCase(status)) return true;
+        }
+        return false;
+    }
+
+    // What is too long for the stores to keep, or null when both fields fit
+    static String sizeProblem(String name, String description) {
+        if (name != null && name.codePointCount(0, name.length()) > MAX_NAME_LENGTH) {
+            return "Task name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        // A char is at most 3 bytes of UTF-8, so most descriptions are known to fit without encoding them
+        if (description != null && description.length() * 3L > MAX_DESCRIPTION_BYTES
+                && description.getBytes(StandardCharsets.UTF_8).length > MAX_DESCRIPTION_BYTES) {
+            return "Description is longer than " + MAX_DESCRIPTION_BYTES + " bytes";
+        }
+        return null;
+    }
+}
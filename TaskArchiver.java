@@ -0,0 +1,187 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves tasks that have been Completed or Canceled for longer than -Dtaskmanager.archive.days (default 90,
+// 0 turns it off) from `tasks` into `tasks_history`, so the live table and every query over it only hold the
+// working set. Each batch is its own short transaction and is logged as deletes in the change feed, so open
+// clients drop the rows too. Only one client archives at a time; the others skip the run.
+final class TaskArchiver {
+    static final int DEFAULT_ARCHIVE_DAYS = 90;
+    private static final int BATCH_SIZE = 500;
+    private static final long BATCH_PAUSE_MILLIS = 200;
+    private static final long FIRST_RUN_DELAY_MINUTES = 2;
+    private static final long RUN_INTERVAL_HOURS = 6;
+    private static final String LOCK_NAME = "task_manager_archiver";
+    private static final String HISTORY_COLUMNS = "SELECT t.task_id, t.name, t.description, t.start_date, t.end_date, t.status_id, t.updated_at FROM tasks_history t";
+
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService runner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "task-archiver");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static int archiveDays() {
+        return Integer.getInteger("taskmanager.archive.days", DEFAULT_ARCHIVE_DAYS);
+    }
+
+    void start() {
+        if (archiveDays() <= 0) return;
+        runner.scheduleWithFixedDelay(() -> {
+            try {
+                archive(archiveDays());
+            } catch (SQLException e) {
+                System.err.println("Task archival failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, FIRST_RUN_DELAY_MINUTES, RUN_INTERVAL_HOURS * 60, TimeUnit.MINUTES);
+    }
+
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    // Returns how many tasks were moved, or -1 if another client was already archiving
+    static long archive(int days) throws SQLException, InterruptedException {
+        SchemaMigrator.ensureCurrent();
+        TaskStatusRegistry statuses = TaskStatusRegistry.get();
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - days * 86_400_000L);
+        long archived = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!namedLock(conn, "SELECT GET_LOCK('" + LOCK_NAME + "', 0)")) return -1;
+            try {
+                // One status at a time, so each batch reads its index range in order instead of sorting
+                for (String status : Task.FINISHED_STATUSES) {
+                    int statusId = statuses.idOf(status);
+                    int moved;
+                    do {
+                        long started = System.nanoTime();
+                        moved = archiveBatch(conn, statusId, cutoff);
+                        TaskMetrics.record("archive.batch", TaskMetrics.MICROS, (System.nanoTime() - started) / 1000);
+                        archived += moved;
+                        // Leave the table to live writes for a moment between batches
+                        if (moved == BATCH_SIZE) Thread.sleep(BATCH_PAUSE_MILLIS);
+                    } while (moved == BATCH_SIZE);
+                }
+            } finally {
+                namedLock(conn, "SELECT RELEASE_LOCK('" + LOCK_NAME + "')");
+            }
+        }
+        return archived;
+    }
+
+    // The candidates are read oldest first through idx_tasks_status_updated, so the batch only locks an old
+    // stretch of that index; live writes all stamp updated_at = NOW() and never wait on it
+    private static int archiveBatch(Connection conn, int statusId, Timestamp cutoff) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            long[] ids = new long[BATCH_SIZE];
+            int count = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(candidateQuery() + " FOR UPDATE SKIP LOCKED")) {
+                stmt.setInt(1, statusId);
+                stmt.setTimestamp(2, cutoff);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    ids[count++] = rs.getLong(1);
+                }
+            }
+            if (count == 0) {
+                conn.commit();
+                return 0;
+            }
+            String in = MySqlTaskStore.placeholders(count);
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO tasks_history (task_id, name, description, start_date, end_date, "
+                    + "status_id, created_at, updated_at, archived_at) SELECT task_id, name, description, start_date, end_date, status_id, "
+                    + "created_at, updated_at, NOW() FROM tasks WHERE task_id IN " + in)) {
+                MySqlTaskStore.bindIds(stmt, 1, ids, 0, count);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tasks WHERE task_id IN " + in)) {
+                MySqlTaskStore.bindIds(stmt, 1, ids, 0, count);
+                stmt.executeUpdate();
+            }
+            TaskChangeLog.record(conn, TaskChangeLog.nextVersion(conn), TaskChangeLog.DELETE, ids, 0, count);
+            conn.commit();
+            return count;
+        } catch (SQLException e) {
+            DatabaseConnection.rollbackAfter(conn, e);
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Shared with SchemaMigrator's EXPLAIN check, like the MySqlTaskStore queries
+    static String candidateQuery() {
+        return "SELECT task_id FROM tasks WHERE status_id = ? AND updated_at < ? ORDER BY updated_at, task_id LIMIT " + BATCH_SIZE;
+    }
+
+    static String historyPageQuery(boolean afterKey) {
+        return HISTORY_COLUMNS + (afterKey ? " WHERE (t.updated_at < ? OR (t.updated_at = ? AND t.task_id < ?))" : "")
+                + " ORDER BY t.updated_at DESC, t.task_id DESC LIMIT ?";
+    }
+
+    // Keyset pagination on (updated_at, task_id), newest first, like MySqlTaskStore.getTaskPage
+    static List<Task> getHistoryPage(long afterUpdatedMillis, long afterTaskId, int limit) throws SQLException {
+        SchemaMigrator.ensureCurrent();
+        List<Task> tasks = new ArrayList<>(limit);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(historyPageQuery(afterTaskId >= 0))) {
+            int index = 1;
+            if (afterTaskId >= 0) {
+                Timestamp after = new Timestamp(afterUpdatedMillis);
+                stmt.setTimestamp(index++, after);
+                stmt.setTimestamp(index++, after);
+                stmt.setLong(index++, afterTaskId);
+            }
+            stmt.setInt(index, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                tasks.add(MySqlTaskStore.readTask(rs));
+            }
+        }
+        return tasks;
+    }
+
+    static CompletableFuture<List<Task>> getHistoryPageAsync(long afterUpdatedMillis, long afterTaskId, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return getHistoryPage(afterUpdatedMillis, afterTaskId, limit);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static boolean namedLock(Connection conn, String query) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery(query);
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    // --archive [days] runs one pass now, e.g. from cron on a machine without the GUI
+    static void main(String[] args) throws Exception {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : archiveDays();
+        try {
+            long archived = archive(days);
+            System.out.println(archived < 0 ? "Another client is archiving; nothing done"
+                    : "Archived " + archived + " tasks finished more than " + days + " days ago");
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+}
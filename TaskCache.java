@@ -0,0 +1,40 @@
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Authoritative copy of every task loaded so far, keyed by task_id
+class TaskCache {
+    private final Map<Long, Task> tasks = new ConcurrentHashMap<>();
+
+    Task get(long taskId) {
+        return tasks.get(taskId);
+    }
+
+    void put(Task task) {
+        tasks.put(task.getId(), task);
+    }
+
+    void putAll(Collection<Task> loaded) {
+        for (Task task : loaded) {
+            tasks.put(task.getId(), task);
+        }
+    }
+
+    // After a full load, so tasks deleted in the meantime do not linger
+    void replaceAll(Collection<Task> loaded) {
+        tasks.clear();
+        putAll(loaded);
+    }
+
+    Task remove(long taskId) {
+        return tasks.remove(taskId);
+    }
+
+    Collection<Task> values() {
+        return tasks.values();
+    }
+
+    int size() {
+        return tasks.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Change feed shared by every client of the database. Each write transaction takes the next version from a
+// single counter row and logs (version, task_id, op) for the tasks it touched. The counter's row lock is held
+// until commit, so versions become visible in order and "version > N" never skips a slower transaction.
+final class TaskChangeLog {
+    static final char UPSERT = 'U';
+    static final char DELETE = 'D';
+    // Entries older than this are pruned; a client that falls further behind is told to reload (see mayHaveMissed)
+    static final int RETENTION_DAYS = 1;
+
+    private TaskChangeLog() {
+    }
+
+    // Called once per process by SchemaMigrator, which owns the tables themselves
+    static void prune(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM task_changes WHERE changed_at < NOW() - INTERVAL " + RETENTION_DAYS + " DAY");
+        }
+    }
+
+    // True when changes after sinceVersion may already be pruned, so a delta from it could be missing some. Pruning
+    // goes oldest first, so the feed is complete as long as the oldest entry left is no later than sinceVersion + 1.
+    // A write that logged nothing leaves a gap and can make this a false alarm, which only costs a reload.
+    static boolean mayHaveMissed(Connection conn, long sinceVersion) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT (SELECT MIN(version) FROM task_changes), (SELECT version FROM task_version WHERE id = 1)");
+            rs.next();
+            long oldest = rs.getLong(1);
+            if (rs.wasNull()) return sinceVersion < rs.getLong(2);
+            return oldest > sinceVersion + 1;
+        }
+    }
+
+    // Must run inside the write's transaction; the counter row stays locked until it commits
+    static long nextVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE task_version SET version = LAST_INSERT_ID(version + 1) WHERE id = 1");
+            ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()");
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    static long currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT version FROM task_version WHERE id = 1");
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    static void record(Connection conn, long version, char op, long taskId) throws SQLException {
+        record(conn, version, op, new long[] { taskId }, 0, 1);
+    }
+
+    static void record(Connection conn, long version, char op, long[] taskIds, int from, int to) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT IGNORE INTO task_changes (version, task_id, op, changed_at) VALUES (?, ?, ?, NOW())")) {
+            for (int i = from; i < to; i++) {
+                stmt.setLong(1, version);
+                stmt.setLong(2, taskIds[i]);
+                stmt.setString(3, String.valueOf(op));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Logs every task with an id above afterTaskId, for writers that do not keep the generated keys
+    static long recordInsertedAfter(Connection conn, long version, long afterTaskId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT IGNORE INTO task_changes (version, task_id, op, changed_at) "
+                + "SELECT ?, task_id, '" + UPSERT + "', NOW() FROM tasks WHERE task_id > ?")) {
+            stmt.setLong(1, version);
+            stmt.setLong(2, afterTaskId);
+            stmt.executeUpdate();
+        }
+        return maxTaskId(conn);
+    }
+
+    static long maxTaskId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(task_id), 0) FROM tasks");
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.List;
+
+// Rows changed and task_ids deleted since a change-log version, plus the version to ask from next time
+class TaskDelta {
+    private final List<Task> changed;
+    private final List<Long> deletedIds;
+    private final long watermark;
+    private final boolean reloadRequired;
+
+    TaskDelta(List<Task> changed, List<Long> deletedIds, long watermark) {
+        this(changed, deletedIds, watermark, false);
+    }
+
+    private TaskDelta(List<Task> changed, List<Long> deletedIds, long watermark, boolean reloadRequired) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.reloadRequired = reloadRequired;
+    }
+
+    // The changes since the watermark are no longer all in the change log; only a full load is complete
+    static TaskDelta reloadRequired(long watermark) {
+        return new TaskDelta(List.of(), List.of(), watermark, true);
+    }
+
+    List<Task> getChanged() {
+        return changed;
+    }
+
+    List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    long getWatermark() {
+        return watermark;
+    }
+
+    boolean isReloadRequired() {
+        return reloadRequired;
+    }
+
+    boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty() && !reloadRequired;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,336 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Streaming CSV / JSON import and export. Import sends batched inserts (rewritten into multi-row
+// INSERTs by the driver) and commits in chunks; export streams the result set row by row.
+// Neither side ever holds more than one batch of tasks in memory.
+class TaskImportExport {
+    interface ProgressListener {
+        void progress(long rows, long elapsedMillis);
+    }
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int BATCHES_PER_COMMIT = 5;
+    private static final String[] CSV_HEADER = { "task_id", "name", "description", "start_date", "end_date", "status" };
+    private static final DateTimeFormatter[] INPUT_DATE_FORMATS = {
+            TaskJson.DATE_FORMAT,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")
+    };
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    CompletableFuture<Long> importTasksAsync(Path file, ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return importTasks(file, listener);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    CompletableFuture<Long> exportTasksAsync(Path file, ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return exportTasks(file, listener);
+            } catch (IOException | SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    long importTasks(Path file, ProgressListener listener) throws IOException, SQLException {
+        boolean json = isJson(file);
+        long started = System.currentTimeMillis();
+        long imported = 0;
+        long committed = 0;
+        String query = "INSERT INTO tasks (name, description, start_date, end_date, status_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, NOW(), NOW())";
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             Connection conn = DatabaseConnection.getConnection()) {
+            TaskStatusRegistry statuses = TaskStatusRegistry.get();
+            // Each commit logs the rows inserted since the previous one, so other clients pick the import up
+            long loggedUpToId = TaskChangeLog.maxTaskId(conn);
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                RecordSource source = json ? new JsonSource(reader) : new CsvSource(reader);
+                int batched = 0;
+                int batchesSinceCommit = 0;
+                Map<String, String> record;
+                while ((record = source.next()) != null) {
+                    String location = file.getFileName() + " record " + (imported + batched + 1);
+                    String name = record.get("name");
+                    if (name == null || name.trim().isEmpty()) {
+                        throw new IOException(location + ": task name is required");
+                    }
+                    String description = record.get("description");
+                    String sizeProblem = Task.sizeProblem(name.trim(), description == null ? null : description.trim());
+                    if (sizeProblem != null) {
+                        throw new IOException(location + ": " + sizeProblem);
+                    }
+                    String status = record.getOrDefault("status", "Pending");
+                    if (!statuses.contains(status)) {
+                        throw new IOException(location + ": unknown status '" + status + "'");
+                    }
+                    stmt.setString(1, name.trim());
+                    stmt.setString(2, description == null || description.trim().isEmpty() ? null : description.trim());
+                    stmt.setTimestamp(3, parseDate(record.get("start_date"), location));
+                    stmt.setTimestamp(4, parseDate(record.get("end_date"), location));
+                    stmt.setInt(5, statuses.idOf(status));
+                    stmt.addBatch();
+                    if (++batched < BATCH_SIZE) continue;
+                    stmt.executeBatch();
+                    imported += batched;
+                    batched = 0;
+                    if (++batchesSinceCommit == BATCHES_PER_COMMIT) {
+                        loggedUpToId = TaskChangeLog.recordInsertedAfter(conn, TaskChangeLog.nextVersion(conn), loggedUpToId);
+                        conn.commit();
+                        committed = imported;
+                        batchesSinceCommit = 0;
+                    }
+                    listener.progress(imported, System.currentTimeMillis() - started);
+                }
+                if (batched > 0) {
+                    stmt.executeBatch();
+                    imported += batched;
+                }
+                TaskChangeLog.recordInsertedAfter(conn, TaskChangeLog.nextVersion(conn), loggedUpToId);
+                conn.commit();
+            } catch (IOException | SQLException e) {
+                // Earlier chunks stay committed, so say how many landed; importing the whole file again would duplicate them
+                DatabaseConnection.rollbackAfter(conn, e);
+                if (committed == 0) throw e;
+                String message = e.getMessage() + " (the first " + committed + " records were already imported; "
+                        + "remove them from the file before importing it again)";
+                if (e instanceof SQLException) {
+                    SQLException sqlError = (SQLException) e;
+                    throw new SQLException(message, sqlError.getSQLState(), sqlError.getErrorCode(), sqlError);
+                }
+                throw new IOException(message, e);
+            }
+        }
+        listener.progress(imported, System.currentTimeMillis() - started);
+        return imported;
+    }
+
+    long exportTasks(Path file, ProgressListener listener) throws IOException, SQLException {
+        boolean json = isJson(file);
+        long started = System.currentTimeMillis();
+        long exported = 0;
+        String query = "SELECT task_id, name, description, start_date, end_date, status_id FROM tasks ORDER BY task_id";
+        TaskStatusRegistry statuses = TaskStatusRegistry.get();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams rows one at a time instead of buffering the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            ResultSet rs = stmt.executeQuery(query);
+            StringBuilder line = new StringBuilder(256);
+            if (json) {
+                writer.write("[\n");
+            } else {
+                writeCsvRow(writer, line, CSV_HEADER);
+            }
+            while (rs.next()) {
+                Task task = new Task(rs.getLong("task_id"), rs.getString("name"),
+                        rs.getString("description") != null ? rs.getString("description") : "",
+                        rs.getTimestamp("start_date"), rs.getTimestamp("end_date"), statuses.nameOf(rs.getInt("status_id")));
+                if (json) {
+                    line.setLength(0);
+                    if (exported > 0) line.append(",\n");
+                    TaskJson.appendTask(line, task);
+                    writer.append(line);
+                } else {
+                    writeCsvRow(writer, line, new String[] {
+                            Long.toString(task.getId()), task.getName(), task.getDescription(),
+                            TaskJson.formatDate(task.getStartDate()), TaskJson.formatDate(task.getEndDate()), task.getStatus()
+                    });
+                }
+                if (++exported % BATCH_SIZE == 0) {
+                    listener.progress(exported, System.currentTimeMillis() - started);
+                }
+            }
+            if (json) {
+                writer.write("\n]\n");
+            }
+        }
+        listener.progress(exported, System.currentTimeMillis() - started);
+        return exported;
+    }
+
+    static String describeProgress(String verb, long rows, long elapsedMillis) {
+        long perSecond = elapsedMillis > 0 ? rows * 1000 / elapsedMillis : rows;
+        return String.format(Locale.ROOT, "%s %,d tasks in %.1f s (%,d tasks/s)", verb, rows, elapsedMillis / 1000.0, perSecond);
+    }
+
+    static Timestamp parseDate(String value, String location) throws IOException {
+        if (value != null) {
+            for (DateTimeFormatter format : INPUT_DATE_FORMATS) {
+                try {
+                    return Timestamp.from(LocalDateTime.parse(value.trim(), format).atZone(ZoneId.systemDefault()).toInstant());
+                } catch (DateTimeParseException ignored) {
+                }
+            }
+        }
+        throw new IOException(location + ": invalid date '" + value + "'");
+    }
+
+    private static boolean isJson(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson");
+    }
+
+    private static void writeCsvRow(Writer writer, StringBuilder line, String[] fields) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) line.append(',');
+            String field = fields[i] == null ? "" : fields[i];
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        line.append('\n');
+        writer.append(line);
+    }
+
+    private interface RecordSource {
+        Map<String, String> next() throws IOException;
+    }
+
+    private static class JsonSource implements RecordSource {
+        private final TaskJson.ObjectReader reader;
+
+        JsonSource(Reader in) {
+            reader = new TaskJson.ObjectReader(in);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            return reader.next();
+        }
+    }
+
+    // RFC 4180 CSV: quoted fields may contain commas, doubled quotes and line breaks; the first row names the columns
+    private static class CsvSource implements RecordSource {
+        private final Reader in;
+        private List<String> header;
+        private int peeked = -2;
+
+        CsvSource(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                header = readRow();
+                if (header == null) return null;
+            }
+            List<String> row;
+            do {
+                row = readRow();
+                if (row == null) return null;
+            } while (row.size() == 1 && row.get(0).isEmpty());
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.size() && i < row.size(); i++) {
+                record.put(header.get(i).trim(), row.get(i));
+            }
+            return record;
+        }
+
+        private List<String> readRow() throws IOException {
+            int c = read();
+            if (c == -1) return null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new IOException("Unterminated quoted CSV field");
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') peeked = next;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return in.read();
+        }
+    }
+
+    // java TaskImportExport import|export <file.csv|file.json>
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Usage: java TaskImportExport import|export <file.csv|file.json>");
+            System.exit(2);
+        }
+        boolean importing = args[0].equals("import");
+        String verb = importing ? "Imported" : "Exported";
+        ProgressListener listener = (rows, elapsedMillis) -> System.out.println(describeProgress(verb, rows, elapsedMillis));
+        TaskImportExport importExport = new TaskImportExport();
+        Path file = Paths.get(args[1]);
+        if (importing) {
+            importExport.importTasks(file, listener);
+        } else {
+            importExport.exportTasks(file, listener);
+        }
+        DatabaseConnection.shutdown();
+    }
+}
\ No newline at end of file
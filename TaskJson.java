@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Just enough JSON for flat task objects, so streaming import/export needs no extra library
+final class TaskJson {
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private TaskJson() {
+    }
+
+    static String formatDate(Date date) {
+        return DATE_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault()));
+    }
+
+    static void appendTask(StringBuilder out, Task task) {
+        out.append("{\"task_id\":").append(task.getId());
+        out.append(",\"name\":");
+        appendString(out, task.getName());
+        out.append(",\"description\":");
+        appendString(out, task.getDescription());
+        out.append(",\"start_date\":");
+        appendString(out, formatDate(task.getStartDate()));
+        out.append(",\"end_date\":");
+        appendString(out, formatDate(task.getEndDate()));
+        out.append(",\"status\":");
+        appendString(out, task.getStatus());
+        out.append('}');
+    }
+
+    static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    // Reads flat objects one at a time from either a JSON array or newline-delimited JSON.
+    // Strings are unescaped; numbers and booleans come back as their literal text, null as null.
+    static class ObjectReader {
+        private final Reader in;
+        private int peeked = -2;
+
+        ObjectReader(Reader in) {
+            this.in = in;
+        }
+
+        Map<String, String> next() throws IOException {
+            int c = skip(" \t\r\n,[");
+            if (c == -1 || c == ']') return null;
+            expect(c, '{');
+            Map<String, String> object = new LinkedHashMap<>();
+            c = skip(" \t\r\n");
+            if (c == '}') return object;
+            while (true) {
+                expect(c, '"');
+                String key = readString();
+                expect(skip(" \t\r\n"), ':');
+                c = skip(" \t\r\n");
+                object.put(key, c == '"' ? readString() : readLiteral(c));
+                c = skip(" \t\r\n");
+                if (c == '}') return object;
+                expect(c, ',');
+                c = skip(" \t\r\n");
+            }
+        }
+
+        private String readString() throws IOException {
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c == -1) throw new IOException("Unterminated JSON string");
+                if (c == '"') return value.toString();
+                if (c != '\\') {
+                    value.append((char) c);
+                    continue;
+                }
+                c = read();
+                switch (c) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            int h = read();
+                            if (h == -1) throw new IOException("Truncated JSON escape");
+                            hex[i] = (char) h;
+                        }
+                        value.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    case -1:
+                        throw new IOException("Truncated JSON escape");
+                    default:
+                        value.append((char) c);
+                }
+            }
+        }
+
+        private String readLiteral(int first) throws IOException {
+            StringBuilder literal = new StringBuilder().append((char) first);
+            while (true) {
+                int c = read();
+                if (c == -1 || c == ',' || c == '}' || Character.isWhitespace(c)) {
+                    peeked = c;
+                    break;
+                }
+                literal.append((char) c);
+            }
+            String text = literal.toString();
+            return text.equals("null") ? null : text;
+        }
+
+        private int skip(String skippable) throws IOException {
+            int c = read();
+            while (c != -1 && skippable.indexOf(c) >= 0) {
+                c = read();
+            }
+            return c;
+        }
+
+        private void expect(int actual, char expected) throws IOException {
+            if (actual != expected) {
+                throw new IOException("Malformed JSON: expected '" + expected + "' but found "
+                        + (actual == -1 ? "end of input" : "'" + (char) actual + "'"));
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return in.read();
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,4 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
@@ -8,27 +7,78 @@ import javax.swing.text.DocumentFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class TaskManager extends JFrame {
-    private static final String[] TASK_STATUSES = { "Pending", "In Progress", "Completed", "Canceled" };
-    private static final String FILTER_ALL = "All";
+    static final String[] TASK_STATUSES = { "Pending", "In Progress", "Completed", "Canceled" };
+    static final String FILTER_ALL = "All";
+    private static final String[] DATE_RANGES = { "Any Date", "Today", "Next 7 Days" };
+    // Page the table from the database while scrolling instead of holding every task in memory
+    private static final boolean LAZY_LOADING = Boolean.getBoolean("taskmanager.lazyLoading");
+    private static final int CHANGE_POLL_MILLIS = 2000;
+    // Apply edits locally and journal them, flushing to the database in the background
+    private static final boolean WRITE_BEHIND = Boolean.getBoolean("taskmanager.writeBehind");
+    private static final int SNAPSHOT_INTERVAL_MILLIS = 5 * 60_000;
+    // An older snapshot may predate what the change log still holds, so it is reloaded in full instead
+    private static final long SNAPSHOT_MAX_DELTA_AGE_MILLIS = TaskChangeLog.RETENTION_DAYS * 12 * 3_600_000L;
+    // Alarms are loaded for this far ahead and reloaded well before the window runs out
+    private static final long ALARM_HORIZON_MILLIS = 2 * 3_600_000L;
+    private static final int ALARM_REFRESH_MILLIS = 15 * 60_000;
     private JTable taskTable;
-    private DefaultTableModel tableModel;
+    private TaskTableModel tableModel;
+    private PagedTaskTableModel pagedModel;
     private JComboBox<String> filterComboBox;
+    private JComboBox<String> dateRangeComboBox;
+    private JTextField searchField;
+    private JLabel statusLabel;
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm");
-    private final Timer alarmTimer = new Timer(true);
-    private final Map<String, TimerTask> scheduledAlarms = new ConcurrentHashMap<>();
-    private final Map<Long, Thread> activeAlarms = new ConcurrentHashMap<>(); // Track active alarm threads by task ID
+    private final AlarmScheduler alarmScheduler = new AlarmScheduler(new AlarmScheduler.Listener() {
+        @Override
+        public void taskStarted(Task task) {
+            SwingUtilities.invokeLater(() -> {
+                notifications.taskStarted(task.getName());
+                startContinuousAlarm(task.getId(), task.getEndDate().getTime());
+            });
+        }
+
+        @Override
+        public void taskEnded(Task task) {
+            SwingUtilities.invokeLater(() -> {
+                notifications.taskEnded(task.getName());
+                stopContinuousAlarm(task.getId());
+            });
+        }
+    });
+    private final ContinuousAlarmTicker continuousAlarms = new ContinuousAlarmTicker();
+    private final NotificationCenter notifications = new NotificationCenter(this);
+    private final TaskRepository repository = new TaskRepository();
+    private final TaskCache taskCache = new TaskCache();
+    private final TaskImportExport importExport = new TaskImportExport();
+    private final java.nio.file.Path snapshotFile = java.nio.file.Paths.get(System.getProperty("taskmanager.snapshot",
+            System.getProperty("user.home") + java.io.File.separator + ".task-manager.snapshot"));
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    private boolean tasksLoaded;
+    private WriteBehindQueue writeBehind;
+    private CompletableFuture<TaskDelta> pendingRefresh;
+    private long refreshGeneration;
+    private long syncWatermark; // TaskChangeLog version the table is current up to
+    private boolean syncInFlight;
+    private boolean syncRequested;
+    private long alarmGeneration;
+    private long alarmHorizonEnd; // tasks starting at or after this are left to the next alarm refresh
 
     public TaskManager() {
         setTitle("Task Manager");
@@ -40,6 +90,7 @@ public class TaskManager extends JFrame {
         styleComponents();
         setLayout(new BorderLayout());
 
+        setJMenuBar(createMenuBar());
         JPanel buttonPanel = createButtonPanel();
         JPanel filterPanel = createFilterPanel();
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -47,8 +98,119 @@ public class TaskManager extends JFrame {
         topPanel.add(filterPanel, BorderLayout.SOUTH);
         add(topPanel, BorderLayout.NORTH);
         add(new JScrollPane(taskTable), BorderLayout.CENTER);
-        refreshTable();
-        enforceBlockStatusOnStartup();
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(4, 10, 4, 10));
+        add(statusLabel, BorderLayout.SOUTH);
+        installDiagnostics();
+        startWriteBehind();
+        if (TaskRepository.usesMySql()) {
+            new TaskArchiver().start();
+        }
+        if (LAZY_LOADING) {
+            refreshTable();
+        } else {
+            startFromSnapshot();
+        }
+        refreshAlarms();
+        new Timer(ALARM_REFRESH_MILLIS, e -> refreshAlarms()).start();
+        new Timer(CHANGE_POLL_MILLIS, e -> pollChanges()).start();
+    }
+
+    // Shows the tasks saved by the last session right away and lets the store catch the table up in the
+    // background: a delta sync when the snapshot is recent enough, a full reload otherwise
+    private void startFromSnapshot() {
+        TaskSnapshot snapshot = TaskSnapshot.read(snapshotFile, TaskRepository.defaultStoreName());
+        if (snapshot == null) {
+            refreshTable();
+        } else {
+            List<Task> tasks = withPendingWrites(snapshot.getTasks());
+            taskCache.replaceAll(tasks);
+            tableModel.setTasks(tasks);
+            syncWatermark = snapshot.getWatermark();
+            tasksLoaded = true;
+            if (System.currentTimeMillis() - snapshot.getSavedAt() > SNAPSHOT_MAX_DELTA_AGE_MILLIS) {
+                refreshTable();
+            } else {
+                syncChanges();
+            }
+        }
+        new Timer(SNAPSHOT_INTERVAL_MILLIS, e -> saveSnapshot(false)).start();
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                saveSnapshot(true);
+            }
+        });
+    }
+
+    // The cache and watermark are read on the EDT so they agree; only the encoding and file I/O run elsewhere
+    private void saveSnapshot(boolean wait) {
+        if (!tasksLoaded) return;
+        List<Task> tasks = new ArrayList<>(taskCache.values());
+        long watermark = syncWatermark;
+        java.util.concurrent.Future<?> written = snapshotWriter.submit(() -> {
+            // The cache is in hash order; saved in table order, the next start shows it as a full load would
+            tasks.sort(Task.NEWEST_FIRST);
+            try {
+                TaskSnapshot.write(snapshotFile, TaskRepository.defaultStoreName(), tasks, watermark);
+            } catch (java.io.IOException e) {
+                System.err.println("Could not save the task snapshot: " + e.getMessage());
+            }
+        });
+        if (!wait) return;
+        try {
+            written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.util.concurrent.ExecutionException ignored) {
+        }
+    }
+
+    // Ctrl+Shift+D opens the diagnostics dialog; -Dtaskmanager.metrics.dump=<file> also writes the metrics on exit
+    private void installDiagnostics() {
+        TaskMetrics.watchEventDispatchThread();
+        TaskMetrics.gauge("alarms.scheduled", alarmScheduler::getQueueDepth);
+        TaskMetrics.gauge("alarms.fired", alarmScheduler::getFiredCount);
+        TaskMetrics.gauge("alarms.active", continuousAlarms::getActiveCount);
+        TaskMetrics.gauge("alarms.coalesced", notifications::getCoalescedCount);
+        TaskMetrics.gauge("tasks.cached", taskCache::size);
+        if (TaskRepository.usesMySql()) {
+            TaskMetrics.gauge("db.connections.active", DatabaseConnection::getActiveCount);
+            TaskMetrics.gauge("db.connections.idle", DatabaseConnection::getIdleCount);
+        }
+        getRootPane().registerKeyboardAction(e -> new DiagnosticsDialog(this).setVisible(true),
+                KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_D, java.awt.event.InputEvent.CTRL_DOWN_MASK | java.awt.event.InputEvent.SHIFT_DOWN_MASK),
+                JComponent.WHEN_IN_FOCUSED_WINDOW);
+        String dumpFile = System.getProperty("taskmanager.metrics.dump");
+        if (dumpFile != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    TaskMetrics.dump(java.nio.file.Paths.get(dumpFile));
+                } catch (java.io.IOException e) {
+                    System.err.println("Could not write metrics: " + e.getMessage());
+                }
+            }));
+        }
+    }
+
+    // Replays whatever the last session left in the journal; without a usable journal edits stay synchronous
+    private void startWriteBehind() {
+        if (!WRITE_BEHIND || LAZY_LOADING) return;
+        java.nio.file.Path journal = java.nio.file.Paths.get(System.getProperty("taskmanager.journal",
+                System.getProperty("user.home") + java.io.File.separator + ".task-manager.journal"));
+        try {
+            writeBehind = new WriteBehindQueue(repository, journal, error -> SwingUtilities.invokeLater(
+                    () -> statusLabel.setText("Saving edits failed, will retry: " + error.getMessage())));
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not open the edit journal: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                writeBehind.close();
+            }
+        });
     }
 
     private void styleComponents() {
@@ -94,15 +256,10 @@ public class TaskManager extends JFrame {
     }
 
     private void initComponents() {
-        String[] columns = { "Task Name", "Description", "Start Date", "End Date", "Status" };
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        taskTable = new JTable(tableModel);
-        taskTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel = new TaskTableModel(dateFormat);
+        pagedModel = new PagedTaskTableModel(repository, dateFormat, this::showDatabaseError);
+        taskTable = new JTable(LAZY_LOADING ? pagedModel : tableModel);
+        taskTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         taskTable.getColumnModel().getColumn(0).setPreferredWidth(150);
         taskTable.getColumnModel().getColumn(1).setPreferredWidth(200);
         taskTable.getColumnModel().getColumn(2).setPreferredWidth(100);
@@ -117,10 +274,12 @@ public class TaskManager extends JFrame {
         JButton updateButton = new JButton("Update Task");
         JButton deleteButton = new JButton("Delete Task");
         JButton markCompletedButton = new JButton("Mark as Completed");
+        JButton cancelTasksButton = new JButton("Cancel Tasks");
+        JButton rescheduleButton = new JButton("Reschedule");
 
         Insets margin = getButtonMargin();
         Font buttonFont = getUIFont();
-        for (JButton btn : new JButton[] { addButton, updateButton, deleteButton, markCompletedButton }) {
+        for (JButton btn : new JButton[] { addButton, updateButton, deleteButton, markCompletedButton, cancelTasksButton, rescheduleButton }) {
             btn.setMargin(margin);
             btn.setFont(buttonFont);
         }
@@ -131,21 +290,43 @@ public class TaskManager extends JFrame {
                 JOptionPane.showMessageDialog(this, "Please select a task to update", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            Task task = getTaskAtRow(selectedRow);
-            showTaskDialog(task, true);
+            showTaskDialog(getTaskAtRow(selectedRow), true);
         });
         deleteButton.addActionListener(e -> showDeleteTaskDialog());
         markCompletedButton.addActionListener(e -> markAsCompleted());
+        cancelTasksButton.addActionListener(e -> cancelTasks());
+        rescheduleButton.addActionListener(e -> rescheduleTasks());
 
         panel.add(addButton);
         panel.add(updateButton);
         panel.add(deleteButton);
         panel.add(markCompletedButton);
+        panel.add(cancelTasksButton);
+        panel.add(rescheduleButton);
 
         panel.setBorder(BorderFactory.createTitledBorder("Task Actions"));
         return panel;
     }
 
+    private JMenuBar createMenuBar() {
+        JMenuBar menuBar = new JMenuBar();
+        // Import/export and archival go straight to MySQL, so the file store has neither menu entry
+        if (!TaskRepository.usesMySql()) return menuBar;
+        JMenu fileMenu = new JMenu("File");
+        JMenuItem importItem = new JMenuItem("Import Tasks...");
+        JMenuItem exportItem = new JMenuItem("Export Tasks...");
+        JMenuItem historyItem = new JMenuItem("Task History...");
+        importItem.addActionListener(e -> importTasks());
+        exportItem.addActionListener(e -> exportTasks());
+        historyItem.addActionListener(e -> new HistoryDialog(this, dateFormat).setVisible(true));
+        fileMenu.add(importItem);
+        fileMenu.add(exportItem);
+        fileMenu.addSeparator();
+        fileMenu.add(historyItem);
+        menuBar.add(fileMenu);
+        return menuBar;
+    }
+
     private JPanel createFilterPanel() {
         JPanel panel = new JPanel(new FlowLayout());
         JLabel filterLabel = new JLabel("Filter by Status:");
@@ -154,9 +335,35 @@ public class TaskManager extends JFrame {
         System.arraycopy(TASK_STATUSES, 0, filters, 1, TASK_STATUSES.length);
         filterComboBox = new JComboBox<>(filters);
         filterComboBox.setFont(getUIFont());
-        filterComboBox.addActionListener(e -> refreshTable());
+        filterComboBox.addActionListener(e -> applyFilter());
+        dateRangeComboBox = new JComboBox<>(DATE_RANGES);
+        dateRangeComboBox.setFont(getUIFont());
+        dateRangeComboBox.setEnabled(!LAZY_LOADING);
+        dateRangeComboBox.addActionListener(e -> applyFilter());
+        // Searches the in-memory index as the user types; lazy loading has no full index to search
+        searchField = new JTextField(15);
+        searchField.setFont(getUIFont());
+        searchField.setEnabled(!LAZY_LOADING);
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                applyFilter();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+            }
+        });
         panel.add(filterLabel);
         panel.add(filterComboBox);
+        panel.add(dateRangeComboBox);
+        panel.add(new JLabel("Search:"));
+        panel.add(searchField);
 
         panel.setBorder(BorderFactory.createTitledBorder("Filter Tasks"));
         return panel;
@@ -328,6 +535,11 @@ public class TaskManager extends JFrame {
                 JOptionPane.showMessageDialog(dialog, "Please enter a task name", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            String sizeProblem = Task.sizeProblem(taskName, description);
+            if (sizeProblem != null) {
+                JOptionPane.showMessageDialog(dialog, sizeProblem, "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
 
             Date startDate = (Date) startDateSpinner.getValue();
             Date endDate = (Date) endDateSpinner.getValue();
@@ -357,13 +569,12 @@ public class TaskManager extends JFrame {
     }
 
     private void showDeleteTaskDialog() {
-        int selectedRow = taskTable.getSelectedRow();
-        if (selectedRow < 0) {
+        List<Task> tasks = getSelectedTasks();
+        if (tasks.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please select a task to delete", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        Task task = getTaskAtRow(selectedRow);
         JDialog dialog = new JDialog(this, "Delete Task", true);
         dialog.setMinimumSize(new Dimension(300, 150));
         dialog.setPreferredSize(new Dimension(350, 200));
@@ -373,7 +584,9 @@ public class TaskManager extends JFrame {
         dialog.getContentPane().setBackground(new Color(250, 245, 245));
         ((JComponent) dialog.getContentPane()).setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        JLabel confirmLabel = new JLabel("Delete task: " + task.getName() + "?");
+        JLabel confirmLabel = new JLabel(tasks.size() == 1
+                ? "Delete task: " + tasks.get(0).getName() + "?"
+                : "Delete " + tasks.size() + " tasks?");
         confirmLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
         confirmLabel.setForeground(new Color(183, 28, 28));
         JButton deleteButton = new JButton("Delete");
@@ -388,7 +601,7 @@ public class TaskManager extends JFrame {
         }
 
         deleteButton.addActionListener(e -> {
-            deleteTask(task.getId());
+            deleteTasks(tasks);
             dialog.dispose();
         });
 
@@ -400,286 +613,473 @@ public class TaskManager extends JFrame {
         dialog.setVisible(true);
     }
 
+    private void importTasks() {
+        JFileChooser chooser = createTaskFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        statusLabel.setText("Importing " + file.getFileName() + "...");
+        onEdt(importExport.importTasksAsync(file, progressReporter("Imported")), imported -> refreshTable());
+    }
+
+    private void exportTasks() {
+        JFileChooser chooser = createTaskFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.nio.file.Path file = chooser.getSelectedFile().toPath();
+        statusLabel.setText("Exporting to " + file.getFileName() + "...");
+        onEdt(importExport.exportTasksAsync(file, progressReporter("Exported")), exported -> { });
+    }
+
+    private JFileChooser createTaskFileChooser() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV or JSON task files", "csv", "json", "jsonl", "ndjson"));
+        return chooser;
+    }
+
+    private TaskImportExport.ProgressListener progressReporter(String verb) {
+        return (rows, elapsedMillis) -> {
+            String message = TaskImportExport.describeProgress(verb, rows, elapsedMillis);
+            SwingUtilities.invokeLater(() -> statusLabel.setText(message));
+        };
+    }
+
     private void markAsCompleted() {
-        int selectedRow = taskTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            Task task = getTaskAtRow(selectedRow);
-            // Matikan alarm sebelum update status
-            stopContinuousAlarm(task.getId());
-            updateTask(task.getId(), task.getName(), task.getDescription(), task.getStartDate(), task.getEndDate(), "Completed");
-        } else {
+        List<Task> tasks = getSelectedTasks();
+        if (tasks.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please select a task to mark as completed", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        updateStatus(tasks, "Completed");
     }
 
-    private void refreshTable() {
-        tableModel.setRowCount(0);
-        String filter = (String) filterComboBox.getSelectedItem();
-        List<Task> tasks = getTasks(filter);
-        for (Task task : tasks) {
-            tableModel.addRow(new Object[] {
-                    task.getName(),
-                    task.getDescription(),
-                    dateFormat.format(task.getStartDate()),
-                    dateFormat.format(task.getEndDate()),
-                    task.getStatus()
-            });
+    private void cancelTasks() {
+        List<Task> tasks = getSelectedTasks();
+        if (tasks.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select a task to cancel", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-        scheduleAlarms(tasks);
+        updateStatus(tasks, "Canceled");
     }
 
-    private void scheduleAlarms(List<Task> tasks) {
-        for (TimerTask task : scheduledAlarms.values()) {
-            task.cancel();
+    private void rescheduleTasks() {
+        List<Task> tasks = getSelectedTasks();
+        if (tasks.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select a task to reschedule", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-        scheduledAlarms.clear();
-
-        long now = System.currentTimeMillis();
-
-        // Matikan alarm thread untuk task yang statusnya "Completed"
-        for (Task t : tasks) {
-            if ("Completed".equalsIgnoreCase(t.getStatus())) {
-                stopContinuousAlarm(t.getId());
-            }
+        String input = JOptionPane.showInputDialog(this, "Move " + tasks.size() + " task(s) by how many minutes? (negative moves earlier)", "60");
+        if (input == null) return;
+        int shiftMinutes;
+        try {
+            shiftMinutes = Integer.parseInt(input.trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter a whole number of minutes", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-
-        for (Task t : tasks) {
-            if ("Completed".equalsIgnoreCase(t.getStatus())) continue; // Jangan buat alarm untuk task completed
-
-            String startKey = t.getId() + "-start";
-            String endKey = t.getId() + "-end";
-            long startMillis = t.getStartDate().getTime();
-            long endMillis = t.getEndDate().getTime();
-
-            if (endMillis <= now) continue;
-
-            long delayToStart = Math.max(0, startMillis - now);
-            long delayToEnd = Math.max(0, endMillis - now);
-
-            if (startMillis > now) {
-                TimerTask startTask = new TimerTask() {
-                    @Override
-                    public void run() {
-                        SwingUtilities.invokeLater(() -> {
-                            showAlarmPopup("Task started: " + t.getName(), "Task Start");
-                            startContinuousAlarm(t.getId(), endMillis);
-                        });
-                    }
-                };
-                scheduledAlarms.put(startKey, startTask);
-                alarmTimer.schedule(startTask, delayToStart);
+        if (shiftMinutes == 0) return;
+        if (writeBehind != null) {
+            long shiftMillis = shiftMinutes * 60_000L;
+            List<Task> shifted = new ArrayList<>(tasks.size());
+            for (Task t : tasks) {
+                shifted.add(new Task(t.getId(), t.getName(), t.getDescription(), new Date(t.getStartDate().getTime() + shiftMillis),
+                        new Date(t.getEndDate().getTime() + shiftMillis), t.getStatus(), new Date()));
             }
+            applyLocally(shifted);
+            return;
+        }
+        onEdt(repository.rescheduleTasksAsync(taskIds(tasks), shiftMinutes), ignored -> syncChanges());
+    }
 
-            TimerTask endTask = new TimerTask() {
-                @Override
-                public void run() {
-                    SwingUtilities.invokeLater(() -> {
-                        showAlarmPopup("Task ended: " + t.getName(), "Task End");
-                        stopContinuousAlarm(t.getId());
-                    });
-                }
-            };
-            scheduledAlarms.put(endKey, endTask);
-            alarmTimer.schedule(endTask, delayToEnd);
-
-            if (startMillis <= now && endMillis > now && !activeAlarms.containsKey(t.getId())) {
-                startContinuousAlarm(t.getId(), endMillis);
+    private List<Task> getSelectedTasks() {
+        int[] rows = taskTable.getSelectedRows();
+        List<Task> tasks = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            Task task = getTaskAtRow(row);
+            if (task != null) {
+                tasks.add(task);
             }
         }
+        return tasks;
     }
 
-    private void showAlarmPopup(String message, String title) {
-        Toolkit.getDefaultToolkit().beep();
-        JFrame topFrame = new JFrame();
-        topFrame.setType(Window.Type.UTILITY);
-        topFrame.setAlwaysOnTop(true);
-        topFrame.setUndecorated(true);
-        topFrame.setLocationRelativeTo(null);
-        topFrame.setResizable(true);
-        topFrame.setVisible(true);
-        topFrame.toFront();
-        topFrame.requestFocus();
-        JLabel msgLabel = new JLabel(message);
-        msgLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
-        msgLabel.setForeground(new Color(33, 33, 33));
-        JOptionPane.showMessageDialog(topFrame, msgLabel, title, JOptionPane.INFORMATION_MESSAGE, UIManager.getIcon("OptionPane.informationIcon"));
-        topFrame.dispose();
+    private static long[] taskIds(List<Task> tasks) {
+        long[] ids = new long[tasks.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tasks.get(i).getId();
+        }
+        return ids;
     }
 
-    private void cancelAlarmsForTask(long taskId) {
-        String startKey = taskId + "-start";
-        String endKey = taskId + "-end";
+    // Filters the loaded tasks in memory; only lazy loading has to go back to the database
+    private void applyFilter() {
+        if (LAZY_LOADING) {
+            refreshTable();
+            return;
+        }
+        String filter = (String) filterComboBox.getSelectedItem();
+        byte statusCode = filter.equals(FILTER_ALL) ? -1 : TaskTableModel.statusCode(filter);
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        java.util.Calendar calendar = java.util.Calendar.getInstance();
+        switch (dateRangeComboBox.getSelectedIndex()) {
+            case 1:
+                calendar.set(java.util.Calendar.HOUR_OF_DAY, 0);
+                calendar.set(java.util.Calendar.MINUTE, 0);
+                calendar.set(java.util.Calendar.SECOND, 0);
+                calendar.set(java.util.Calendar.MILLISECOND, 0);
+                from = calendar.getTimeInMillis();
+                calendar.add(java.util.Calendar.DAY_OF_MONTH, 1);
+                to = calendar.getTimeInMillis() - 1;
+                break;
+            case 2:
+                from = calendar.getTimeInMillis();
+                calendar.add(java.util.Calendar.DAY_OF_MONTH, 7);
+                to = calendar.getTimeInMillis();
+                break;
+            default:
+                break;
+        }
+        tableModel.setFilter(statusCode, from, to, searchField.getText());
+    }
 
-        TimerTask st = scheduledAlarms.remove(startKey);
-        if (st != null) st.cancel();
-        TimerTask et = scheduledAlarms.remove(endKey);
-        if (et != null) et.cancel();
+    private void refreshTable() {
+        if (LAZY_LOADING) {
+            pagedModel.reset((String) filterComboBox.getSelectedItem());
+            return;
+        }
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(false);
+        }
+        long generation = ++refreshGeneration;
+        CompletableFuture<TaskDelta> refresh = repository.loadTasksAsync(FILTER_ALL);
+        pendingRefresh = refresh;
+        refresh.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            // Drop results of a refresh that a newer one has already superseded
+            if (generation != refreshGeneration) return;
+            pendingRefresh = null;
+            if (error != null) {
+                showDatabaseError(error);
+                return;
+            }
+            long applyStarted = System.nanoTime();
+            List<Task> tasks = withPendingWrites(loaded.getChanged());
+            taskCache.replaceAll(tasks);
+            tableModel.setTasks(tasks);
+            syncWatermark = loaded.getWatermark();
+            tasksLoaded = true;
+            refreshAlarms();
+            TaskMetrics.record("edt.refreshTable", TaskMetrics.MICROS, (System.nanoTime() - applyStarted) / 1000);
+            if (syncRequested && !syncInFlight) {
+                syncRequested = false;
+                syncChanges();
+            }
+        }));
     }
 
-    private List<Task> getTasks(String filter) {
-        List<Task> tasks = new ArrayList<>();
-        String query = filter.equals(FILTER_ALL)
-                ? "SELECT t.task_id, t.name, t.description, t.start_date, t.end_date, s.status_name, t.updated_at FROM tasks t JOIN task_status s ON t.status_id = s.status_id ORDER BY t.updated_at DESC"
-                : "SELECT t.task_id, t.name, t.description, t.start_date, t.end_date, s.status_name, t.updated_at FROM tasks t JOIN task_status s ON t.status_id = s.status_id WHERE s.status_name = ? ORDER BY t.updated_at DESC";
+    private void syncChanges() {
+        syncChanges(true);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            if (!filter.equals(FILTER_ALL)) {
-                stmt.setString(1, filter);
+    // Applies only the rows changed since the last load; overlapping requests are coalesced into one follow-up.
+    // Background polls stay quiet when the database is unreachable and simply try again next time.
+    private void syncChanges(boolean reportErrors) {
+        if (LAZY_LOADING) {
+            pagedModel.reloadCachedPages();
+            refreshAlarms();
+            return;
+        }
+        if (pendingRefresh != null || syncInFlight) {
+            syncRequested = true;
+            return;
+        }
+        syncInFlight = true;
+        long generation = refreshGeneration;
+        repository.getChangesSinceAsync(syncWatermark).whenComplete((delta, error) -> SwingUtilities.invokeLater(() -> {
+            syncInFlight = false;
+            if (generation == refreshGeneration) {
+                if (error == null) {
+                    applyDelta(delta);
+                } else if (reportErrors) {
+                    showDatabaseError(error);
+                }
             }
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                tasks.add(new Task(rs.getLong("task_id"), rs.getString("name"),
-                        rs.getString("description") != null ? rs.getString("description") : "",
-                        rs.getTimestamp("start_date"), rs.getTimestamp("end_date"), rs.getString("status_name")));
+            if (syncRequested) {
+                syncRequested = false;
+                syncChanges();
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
-        return tasks;
+        }));
     }
 
-    private void addTask(String name, String description, Date startDate, Date endDate, String status) {
-        String query = "INSERT INTO tasks (name, description, start_date, end_date, status_id, created_at, updated_at) VALUES (?, ?, ?, ?, (SELECT status_id FROM task_status WHERE status_name = ?), NOW(), NOW())";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, name);
-            stmt.setString(2, description.isEmpty() ? null : description);
-            stmt.setTimestamp(3, new java.sql.Timestamp(startDate.getTime()));
-            stmt.setTimestamp(4, new java.sql.Timestamp(endDate.getTime()));
-            stmt.setString(5, status);
-            stmt.executeUpdate();
-            refreshTable();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    // Picks up edits made by other clients. The full table only asks the change log for versions newer than
+    // its own; lazy loading has no delta to apply, so it reloads the visible pages when the version moves.
+    private void pollChanges() {
+        if (!LAZY_LOADING) {
+            syncChanges(false);
+            return;
         }
+        if (syncInFlight) return;
+        syncInFlight = true;
+        repository.getCurrentVersionAsync().whenComplete((version, error) -> SwingUtilities.invokeLater(() -> {
+            syncInFlight = false;
+            if (error != null) return;
+            boolean changed = syncWatermark != 0 && version != syncWatermark;
+            syncWatermark = version;
+            if (changed) {
+                pagedModel.reloadCachedPages();
+                refreshAlarms();
+            }
+        }));
     }
 
-    private void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) {
-        // Matikan alarm jika status menjadi Completed
-        if ("Completed".equalsIgnoreCase(status)) {
-            stopContinuousAlarm(taskId);
-        }
-        String query = "UPDATE tasks SET name = ?, description = ?, start_date = ?, end_date = ?, status_id = (SELECT status_id FROM task_status WHERE status_name = ?), updated_at = NOW() WHERE task_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, name);
-            stmt.setString(2, description.isEmpty() ? null : description);
-            stmt.setTimestamp(3, new java.sql.Timestamp(startDate.getTime()));
-            stmt.setTimestamp(4, new java.sql.Timestamp(endDate.getTime()));
-            stmt.setString(5, status);
-            stmt.setLong(6, taskId);
-            stmt.executeUpdate();
+    private void applyDelta(TaskDelta delta) {
+        if (delta.isReloadRequired()) {
+            // Offline for longer than the change log keeps: deletes and edits may be gone from it
             refreshTable();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-    }
-
-    private void deleteTask(long taskId) {
-        // Matikan alarm sebelum hapus task
-        stopContinuousAlarm(taskId);
-        String query = "DELETE FROM tasks WHERE task_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setLong(1, taskId);
-            stmt.executeUpdate();
+        syncWatermark = Math.max(syncWatermark, delta.getWatermark());
+        if (delta.isEmpty()) return;
+        long applyStarted = System.nanoTime();
+        List<Task> changed = new ArrayList<>(delta.getChanged().size());
+        for (Task task : delta.getChanged()) {
+            // A local edit still waiting in the write-behind queue is newer than what the database returned
+            if (writeBehind != null && writeBehind.isPending(task.getId())) continue;
+            taskCache.put(task);
+            changed.add(task);
+            scheduleAlarm(task);
+        }
+        List<Long> deletedIds = new ArrayList<>(delta.getDeletedIds().size());
+        for (long taskId : delta.getDeletedIds()) {
+            if (writeBehind != null && writeBehind.isPending(taskId)) continue;
+            taskCache.remove(taskId);
+            deletedIds.add(taskId);
             cancelAlarmsForTask(taskId);
-            refreshTable();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
+        tableModel.applyChanges(changed, deletedIds);
+        TaskMetrics.record("edt.applyDelta", TaskMetrics.MICROS, (System.nanoTime() - applyStarted) / 1000);
     }
 
-    private void startContinuousAlarm(long taskId, long endMillis) {
-        Thread alarmThread = new Thread(() -> {
-            try {
-                while (System.currentTimeMillis() < endMillis && !Thread.currentThread().isInterrupted()) {
-                    Toolkit.getDefaultToolkit().beep();
-                    Thread.sleep(1000);
-                }
-            } catch (InterruptedException ignored) {
+    private <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess) {
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                showDatabaseError(error);
+            } else {
+                onSuccess.accept(result);
             }
-        });
-        alarmThread.setDaemon(true);
-        alarmThread.start();
-        activeAlarms.put(taskId, alarmThread);
+        }));
     }
 
-    private void stopContinuousAlarm(long taskId) {
-        Thread t = activeAlarms.remove(taskId);
-        if (t != null) t.interrupt();
+    private void showDatabaseError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        JOptionPane.showMessageDialog(this, "Database error: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
     }
 
-    private void enforceBlockStatusOnStartup() {
-        List<Task> tasks = getTasks(FILTER_ALL);
+    // Alarms come from their own query over the next two hours rather than from the table, so the filter
+    // cannot cancel them and tasks weeks away never reach the wheel. Errors stay quiet like background polls;
+    // the table load reports an unreachable database, and the next refresh tries again.
+    private void refreshAlarms() {
         long now = System.currentTimeMillis();
-        for (Task t : tasks) {
-            // Matikan alarm jika status sudah Completed
-            if ("Completed".equalsIgnoreCase(t.getStatus())) {
-                stopContinuousAlarm(t.getId());
-                continue;
-            }
-            long startMillis = t.getStartDate().getTime();
-            long endMillis = t.getEndDate().getTime();
-            if (startMillis <= now && endMillis > now && !activeAlarms.containsKey(t.getId())) {
-                startContinuousAlarm(t.getId(), endMillis);
-            }
-            if (endMillis <= now) {
-                stopContinuousAlarm(t.getId());
+        long horizon = now + ALARM_HORIZON_MILLIS;
+        long generation = ++alarmGeneration;
+        repository.getTasksDueBetweenAsync(now, horizon).whenComplete((tasks, error) -> SwingUtilities.invokeLater(() -> {
+            if (generation != alarmGeneration || error != null) return;
+            alarmHorizonEnd = horizon;
+            scheduleAlarms(withPendingAlarms(tasks, now, horizon));
+        }));
+    }
+
+    // Write-behind edits the database has not seen yet can move a task into or out of the window
+    private List<Task> withPendingAlarms(List<Task> due, long fromMillis, long toMillis) {
+        if (writeBehind == null) return due;
+        java.util.Map<Long, Task> pending = writeBehind.pendingWrites();
+        if (pending.isEmpty()) return due;
+        List<Task> merged = new ArrayList<>(due.size());
+        for (Task t : due) {
+            if (!pending.containsKey(t.getId())) merged.add(t);
+        }
+        for (Task t : pending.values()) {
+            if (t != null && !t.isFinished()
+                    && t.getEndDate().getTime() > fromMillis && t.getStartDate().getTime() < toMillis) {
+                merged.add(t);
             }
         }
+        return merged;
     }
 
-    private Task getTaskAtRow(int row) {
-        String filter = (String) filterComboBox.getSelectedItem();
-        List<Task> tasks = getTasks(filter);
-        return tasks.get(row);
+    // Only tasks whose times or status changed are rescheduled; tasks missing from the list lose their alarms
+    private void scheduleAlarms(List<Task> tasks) {
+        long now = System.currentTimeMillis();
+        for (Task t : tasks) {
+            updateContinuousAlarm(t, now);
+        }
+        alarmScheduler.reconcile(tasks);
     }
 
-    private static class Task {
-        private long id;
-        private String name;
-        private String description;
-        private Date startDate;
-        private Date endDate;
-        private String status;
+    private void scheduleAlarm(Task t) {
+        updateContinuousAlarm(t, System.currentTimeMillis());
+        if (t.getStartDate().getTime() < alarmHorizonEnd) {
+            alarmScheduler.schedule(t);
+        } else {
+            alarmScheduler.cancel(t.getId());
+        }
+    }
 
-        public Task(long id, String name, String description, Date startDate, Date endDate, String status) {
-            this.id = id;
-            this.name = name;
-            this.description = description;
-            this.startDate = startDate;
-            this.endDate = endDate;
-            this.status = status;
+    private void updateContinuousAlarm(Task t, long now) {
+        // Matikan alarm thread untuk task yang statusnya "Completed" atau "Canceled"
+        if (t.isFinished()) {
+            stopContinuousAlarm(t.getId());
+            return;
+        }
+        long startMillis = t.getStartDate().getTime();
+        long endMillis = t.getEndDate().getTime();
+        if (startMillis <= now && endMillis > now && !continuousAlarms.isActive(t.getId())) {
+            startContinuousAlarm(t.getId(), endMillis);
         }
+    }
+
+    private void cancelAlarmsForTask(long taskId) {
+        alarmScheduler.cancel(taskId);
+        stopContinuousAlarm(taskId);
+    }
 
-        public long getId() {
-            return id;
+    private void addTask(String name, String description, Date startDate, Date endDate, String status) {
+        onEdt(repository.addTaskAsync(name, description, startDate, endDate, status), taskId -> {
+            taskCache.put(new Task(taskId, name, description, startDate, endDate, status, new Date()));
+            syncChanges();
+        });
+    }
+
+    private void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) {
+        // Matikan alarm jika status menjadi Completed atau Canceled
+        if (Task.isFinished(status)) {
+            stopContinuousAlarm(taskId);
         }
+        if (writeBehind != null) {
+            applyLocally(List.of(new Task(taskId, name, description, startDate, endDate, status, new Date())));
+            return;
+        }
+        onEdt(repository.updateTaskAsync(taskId, name, description, startDate, endDate, status), ignored -> {
+            taskCache.put(new Task(taskId, name, description, startDate, endDate, status, new Date()));
+            syncChanges();
+        });
+    }
 
-        public String getName() {
-            return name;
+    // One transaction for the whole selection, followed by a single incremental sync
+    private void updateStatus(List<Task> tasks, String status) {
+        long[] ids = taskIds(tasks);
+        // Matikan alarm sebelum update status
+        if (Task.isFinished(status)) {
+            for (long taskId : ids) {
+                stopContinuousAlarm(taskId);
+            }
         }
+        if (writeBehind != null) {
+            List<Task> updated = new ArrayList<>(tasks.size());
+            for (Task t : tasks) {
+                updated.add(new Task(t.getId(), t.getName(), t.getDescription(), t.getStartDate(), t.getEndDate(), status, new Date()));
+            }
+            applyLocally(updated);
+            return;
+        }
+        onEdt(repository.updateStatusAsync(ids, status), ignored -> syncChanges());
+    }
 
-        public String getDescription() {
-            return description;
+    private void deleteTasks(List<Task> tasks) {
+        long[] ids = taskIds(tasks);
+        // Matikan alarm sebelum hapus task
+        for (long taskId : ids) {
+            stopContinuousAlarm(taskId);
+        }
+        if (writeBehind != null) {
+            try {
+                writeBehind.delete(ids);
+            } catch (java.io.IOException e) {
+                showJournalError(e);
+                return;
+            }
+            List<Long> deletedIds = new ArrayList<>(ids.length);
+            for (long taskId : ids) {
+                taskCache.remove(taskId);
+                deletedIds.add(taskId);
+                cancelAlarmsForTask(taskId);
+            }
+            tableModel.applyChanges(List.of(), deletedIds);
+            return;
         }
+        onEdt(repository.deleteTasksAsync(ids), ignored -> {
+            for (long taskId : ids) {
+                taskCache.remove(taskId);
+                cancelAlarmsForTask(taskId);
+            }
+            syncChanges();
+        });
+    }
 
-        public Date getStartDate() {
-            return startDate;
+    // Write-behind: the edit is durable once journaled, so the table and alarms follow it straight away
+    private void applyLocally(List<Task> tasks) {
+        try {
+            writeBehind.putAll(tasks);
+        } catch (java.io.IOException e) {
+            showJournalError(e);
+            return;
         }
+        for (Task t : tasks) {
+            taskCache.put(t);
+            scheduleAlarm(t);
+        }
+        tableModel.applyChanges(tasks, List.of());
+    }
 
-        public Date getEndDate() {
-            return endDate;
+    private List<Task> withPendingWrites(List<Task> tasks) {
+        if (writeBehind == null) return tasks;
+        java.util.Map<Long, Task> pending = writeBehind.pendingWrites();
+        if (pending.isEmpty()) return tasks;
+        List<Task> merged = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            if (!pending.containsKey(t.getId())) {
+                merged.add(t);
+            } else if (pending.get(t.getId()) != null) {
+                merged.add(pending.get(t.getId()));
+            }
         }
+        return merged;
+    }
+
+    private void showJournalError(java.io.IOException e) {
+        JOptionPane.showMessageDialog(this, "Could not save the edit: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void startContinuousAlarm(long taskId, long endMillis) {
+        continuousAlarms.start(taskId, endMillis);
+    }
+
+    private void stopContinuousAlarm(long taskId) {
+        continuousAlarms.stop(taskId);
+    }
 
-        public String getStatus() {
-            return status;
+    private Task getTaskAtRow(int row) {
+        if (LAZY_LOADING) {
+            return pagedModel.getTaskAt(row);
         }
+        return taskCache.get(tableModel.getTaskIdAt(row));
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // --server [port] runs the headless HTTP service instead of the window
+        if (args.length > 0 && args[0].equals("--server")) {
+            TaskServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // --check-schema migrates the database and EXPLAINs the hot queries against it
+        if (args.length > 0 && args[0].equals("--check-schema")) {
+            SchemaMigrator.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // --archive [days] moves finished tasks to tasks_history once and exits
+        if (args.length > 0 && args[0].equals("--archive")) {
+            TaskArchiver.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::shutdown));
         SwingUtilities.invokeLater(() -> new TaskManager().setVisible(true));
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import javax.swing.SwingUtilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// In-process metrics: histograms and gauges by name, shown in the diagnostics dialog and dumped as JSON.
+// The same measurements are committed as JFR events, so a recording started with -XX:StartFlightRecording
+// lines them up with GC and thread activity.
+final class TaskMetrics {
+    static final String MICROS = "\u00b5s";
+    static final String MILLIS = "ms";
+    static final String ROWS = "rows";
+    private static final long EDT_PROBE_MILLIS = 100;
+    private static final long EDT_STALL_EVENT_MILLIS = 100;
+
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, String> units = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final AtomicBoolean edtWatched = new AtomicBoolean();
+
+    private TaskMetrics() {
+    }
+
+    static Histogram histogram(String name, String unit) {
+        units.putIfAbsent(name, unit);
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    static void record(String name, String unit, long value) {
+        histogram(name, unit).record(value);
+    }
+
+    static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    static Map<String, Histogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    static String unitOf(String name) {
+        return units.getOrDefault(name, "");
+    }
+
+    static Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    // Pings the EDT every 100 ms; how long a ping waits in the event queue is how long the EDT was busy
+    static void watchEventDispatchThread() {
+        if (!edtWatched.compareAndSet(false, true)) return;
+        ScheduledExecutorService probe = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "edt-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicBoolean inFlight = new AtomicBoolean();
+        probe.scheduleWithFixedDelay(() -> {
+            if (!inFlight.compareAndSet(false, true)) return;
+            long posted = System.nanoTime();
+            SwingUtilities.invokeLater(() -> {
+                long waitedMillis = (System.nanoTime() - posted) / 1_000_000;
+                record("edt.queueDelay", MILLIS, waitedMillis);
+                if (waitedMillis >= EDT_STALL_EVENT_MILLIS) {
+                    EdtStallEvent event = new EdtStallEvent();
+                    event.stall = waitedMillis;
+                    event.commit();
+                }
+                inFlight.set(false);
+            });
+        }, EDT_PROBE_MILLIS, EDT_PROBE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static void recordAlarmFired(long taskId, boolean start, long latenessMillis) {
+        record("alarms.lateness", MILLIS, latenessMillis);
+        AlarmFiredEvent event = new AlarmFiredEvent();
+        if (event.shouldCommit()) {
+            event.taskId = taskId;
+            event.start = start;
+            event.lateness = latenessMillis;
+            event.commit();
+        }
+    }
+
+    static void dump(Path file) throws IOException {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\n  \"dumpedAt\": ");
+        TaskJson.appendString(json, TaskJson.formatDate(new java.util.Date()));
+        json.append(",\n  \"gauges\": {");
+        boolean first = true;
+        for (Map.Entry<String, Long> gauge : gaugeValues().entrySet()) {
+            json.append(first ? "\n    " : ",\n    ");
+            TaskJson.appendString(json, gauge.getKey());
+            json.append(": ").append(gauge.getValue());
+            first = false;
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        first = true;
+        for (Map.Entry<String, Histogram> entry : histograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            json.append(first ? "\n    " : ",\n    ");
+            TaskJson.appendString(json, entry.getKey());
+            json.append(": {\"unit\": ");
+            TaskJson.appendString(json, unitOf(entry.getKey()));
+            json.append(", \"count\": ").append(histogram.count())
+                    .append(", \"p50\": ").append(histogram.percentile(0.5))
+                    .append(", \"p90\": ").append(histogram.percentile(0.9))
+                    .append(", \"p99\": ").append(histogram.percentile(0.99))
+                    .append(", \"max\": ").append(histogram.max())
+                    .append(", \"buckets\": {");
+            // Non-empty buckets keyed by their upper bound, enough to rebuild the distribution offline
+            boolean firstBucket = true;
+            for (int i = 0; i < Histogram.BUCKETS; i++) {
+                long count = histogram.countAt(i);
+                if (count == 0) continue;
+                json.append(firstBucket ? "" : ", ").append('"').append(Histogram.upperBound(i)).append("\": ").append(count);
+                firstBucket = false;
+            }
+            json.append("}}");
+            first = false;
+        }
+        json.append("\n  }\n}\n");
+        Files.writeString(file, json.toString());
+    }
+
+    @Name("taskmanager.StoreCall")
+    @Label("Task Store Call")
+    @Category("Task Manager")
+    static final class StoreCallEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Rows")
+        int rows;
+    }
+
+    @Name("taskmanager.ConnectionAcquire")
+    @Label("Connection Acquire")
+    @Category("Task Manager")
+    static final class ConnectionAcquireEvent extends Event {
+    }
+
+    @Name("taskmanager.EdtStall")
+    @Label("EDT Stall")
+    @Category("Task Manager")
+    static final class EdtStallEvent extends Event {
+        @Label("Stall")
+        @Timespan(Timespan.MILLISECONDS)
+        long stall;
+    }
+
+    @Name("taskmanager.AlarmFired")
+    @Label("Alarm Fired")
+    @Category("Task Manager")
+    static final class AlarmFiredEvent extends Event {
+        @Label("Task Id")
+        long taskId;
+
+        @Label("Start Alarm")
+        boolean start;
+
+        @Label("Lateness")
+        @Timespan(Timespan.MILLISECONDS)
+        long lateness;
+    }
+}
@@ -0,0 +1,172 @@
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs all task persistence off the Swing EDT; every *Async method completes on a virtual thread.
+// The TaskStore behind it is chosen once per process, so every repository shares the same store.
+class TaskRepository {
+    private static TaskStore defaultStore;
+    private final TaskStore store;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    TaskRepository() {
+        this(openDefaultStore());
+    }
+
+    TaskRepository(TaskStore store) {
+        this.store = store instanceof MeteredTaskStore ? store : new MeteredTaskStore(store);
+    }
+
+    CompletableFuture<List<Task>> getTasksAsync(String filter) {
+        return supply(() -> getTasks(filter));
+    }
+
+    CompletableFuture<List<Task>> getTaskPageAsync(String filter, long afterUpdatedMillis, long afterTaskId, int limit) {
+        return supply(() -> store.getTaskPage(filter, afterUpdatedMillis, afterTaskId, limit));
+    }
+
+    CompletableFuture<List<Task>> getTasksDueBetweenAsync(long fromMillis, long toMillis) {
+        return supply(() -> store.getTasksDueBetween(fromMillis, toMillis));
+    }
+
+    CompletableFuture<TaskDelta> loadTasksAsync(String filter) {
+        return supply(() -> loadTasks(filter));
+    }
+
+    CompletableFuture<TaskDelta> getChangesSinceAsync(long watermark) {
+        return supply(() -> getChangesSince(watermark));
+    }
+
+    CompletableFuture<Long> getCurrentVersionAsync() {
+        return supply(store::getCurrentVersion);
+    }
+
+    CompletableFuture<Long> addTaskAsync(String name, String description, Date startDate, Date endDate, String status) {
+        return supply(() -> addTask(name, description, startDate, endDate, status));
+    }
+
+    CompletableFuture<Void> updateTaskAsync(long taskId, String name, String description, Date startDate, Date endDate, String status) {
+        return run(() -> updateTask(taskId, name, description, startDate, endDate, status));
+    }
+
+    CompletableFuture<Void> deleteTaskAsync(long taskId) {
+        return run(() -> deleteTask(taskId));
+    }
+
+    CompletableFuture<Void> updateStatusAsync(long[] taskIds, String status) {
+        return run(() -> store.updateStatus(taskIds, status));
+    }
+
+    CompletableFuture<Void> rescheduleTasksAsync(long[] taskIds, int shiftMinutes) {
+        return run(() -> store.rescheduleTasks(taskIds, shiftMinutes));
+    }
+
+    CompletableFuture<Void> deleteTasksAsync(long[] taskIds) {
+        return run(() -> store.deleteTasks(taskIds));
+    }
+
+    // Blocking counterparts of the *Async methods, for callers already off the EDT
+    List<Task> getTasks(String filter) throws SQLException {
+        return store.getTasks(filter);
+    }
+
+    // Full load of one filter; the watermark is the store's version read before the load ran
+    TaskDelta loadTasks(String filter) throws SQLException {
+        long watermark = store.getCurrentVersion();
+        return new TaskDelta(store.getTasks(filter), List.of(), watermark);
+    }
+
+    TaskDelta getChangesSince(long watermark) throws SQLException {
+        return store.getChangesSince(watermark);
+    }
+
+    long addTask(String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        return store.addTask(name, description, startDate, endDate, status);
+    }
+
+    void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) throws SQLException {
+        store.updateTask(taskId, name, description, startDate, endDate, status);
+    }
+
+    void deleteTask(long taskId) throws SQLException {
+        store.deleteTask(taskId);
+    }
+
+    void writeBatch(List<Task> updates, long[] deletedIds) throws SQLException {
+        store.writeBatch(updates, deletedIds);
+    }
+
+    boolean isKnownStatus(String status) throws SQLException {
+        return store.isKnownStatus(status);
+    }
+
+    private static TaskStore openDefaultStore() {
+        try {
+            return defaultStore();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open the task store: " + e.getMessage(), e);
+        }
+    }
+
+    // -Dtaskmanager.store=file keeps tasks in an embedded MappedFileTaskStore instead of MySQL
+    static synchronized TaskStore defaultStore() throws SQLException {
+        if (defaultStore == null) {
+            String kind = System.getProperty("taskmanager.store", "mysql");
+            if (kind.equals("file")) {
+                defaultStore = MappedFileTaskStore.open(fileStoreDir());
+            } else if (kind.equals("mysql")) {
+                defaultStore = new MySqlTaskStore();
+            } else {
+                throw new SQLException("Unknown taskmanager.store '" + kind + "', expected mysql or file");
+            }
+        }
+        return defaultStore;
+    }
+
+    // Import/export, archival and the pool gauges bypass TaskStore, so they only make sense when tasks live in MySQL
+    static boolean usesMySql() {
+        return System.getProperty("taskmanager.store", "mysql").equals("mysql");
+    }
+
+    // Tells apart the data sets the default store can point at, e.g. to match a local snapshot to its source;
+    // for MySQL that is the database and account, since taskmanager.db.url and .user can point anywhere
+    static String defaultStoreName() {
+        String kind = System.getProperty("taskmanager.store", "mysql");
+        if (kind.equals("file")) return "file:" + fileStoreDir().toAbsolutePath();
+        return kind.equals("mysql") ? "mysql:" + DatabaseConnection.describe() : kind;
+    }
+
+    private static java.nio.file.Path fileStoreDir() {
+        return java.nio.file.Paths.get(System.getProperty("taskmanager.store.dir",
+                System.getProperty("user.home") + java.io.File.separator + ".task-manager-store"));
+    }
+
+    private <T> CompletableFuture<T> supply(SqlCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private CompletableFuture<Void> run(SqlAction action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    interface SqlAction {
+        void run() throws SQLException;
+    }
+}
\ No newline at end of file
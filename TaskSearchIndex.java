@@ -0,0 +1,168 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+// Inverted index over task name and description, keyed by the table model's slots. Each word maps to the
+// slots containing it; writes find words by hash, and only new or vanished words touch the sorted map that
+// turns a search term into a prefix range. Only the most selective term is looked up; the other terms are
+// checked against the candidates' own words.
+class TaskSearchIndex {
+    private static final String[] NO_TERMS = new String[0];
+    private final HashMap<String, Postings> postingsByWord = new HashMap<>();
+    private final TreeMap<String, Postings> sortedWords = new TreeMap<>();
+    private String[][] wordsBySlot = new String[1024][];
+
+    void add(int slot, String name, String description) {
+        remove(slot);
+        if (slot >= wordsBySlot.length) {
+            wordsBySlot = Arrays.copyOf(wordsBySlot, Math.max(slot + 1, wordsBySlot.length + (wordsBySlot.length >> 1)));
+        }
+        String[] words = tokenize(name, description);
+        for (int i = 0; i < words.length; i++) {
+            Postings postings = postingsByWord.get(words[i]);
+            if (postings == null) {
+                postings = new Postings(words[i]);
+                postingsByWord.put(words[i], postings);
+                sortedWords.put(words[i], postings);
+            }
+            postings.add(slot);
+            // Share one String per distinct word across all slots
+            words[i] = postings.word;
+        }
+        wordsBySlot[slot] = words;
+    }
+
+    void remove(int slot) {
+        if (slot >= wordsBySlot.length || wordsBySlot[slot] == null) return;
+        for (String word : wordsBySlot[slot]) {
+            Postings postings = postingsByWord.get(word);
+            postings.remove(slot);
+            if (postings.size == 0) {
+                postingsByWord.remove(word);
+                sortedWords.remove(word);
+            }
+        }
+        wordsBySlot[slot] = null;
+    }
+
+    void clear() {
+        postingsByWord.clear();
+        sortedWords.clear();
+        Arrays.fill(wordsBySlot, null);
+    }
+
+    // Slots with a word starting with every term
+    BitSet search(String[] terms) {
+        BitSet slots = new BitSet();
+        if (terms.length == 0) return slots;
+        String longest = terms[0];
+        for (String term : terms) {
+            if (term.length() > longest.length()) longest = term;
+        }
+        for (Postings postings : sortedWords.subMap(longest, longest + Character.MAX_VALUE).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                slots.set(postings.slots[i]);
+            }
+        }
+        if (terms.length > 1) {
+            retain(slots, terms);
+        }
+        return slots;
+    }
+
+    // Narrows an earlier result in place, so typing more of a query only rechecks what already matched
+    void retain(BitSet slots, String[] terms) {
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            if (!matches(slot, terms)) {
+                slots.clear(slot);
+            }
+        }
+    }
+
+    boolean matches(int slot, String[] terms) {
+        String[] words = slot < wordsBySlot.length ? wordsBySlot[slot] : null;
+        if (words == null) return false;
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    static String[] terms(String query) {
+        return query == null ? NO_TERMS : tokenize(query, null);
+    }
+
+    // True when every result of the old terms is a candidate for the new ones
+    static boolean refines(String[] oldTerms, String[] newTerms) {
+        if (oldTerms.length == 0 || newTerms.length < oldTerms.length) return false;
+        for (int i = 0; i < oldTerms.length; i++) {
+            if (!newTerms[i].startsWith(oldTerms[i])) return false;
+        }
+        return true;
+    }
+
+    // Distinct lower-case runs of letters and digits
+    private static String[] tokenize(String first, String second) {
+        List<String> words = new ArrayList<>();
+        for (String text : new String[] { first, second }) {
+            if (text == null) continue;
+            String lower = text.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= lower.length(); i++) {
+                boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    String word = lower.substring(start, i);
+                    if (!words.contains(word)) {
+                        words.add(word);
+                    }
+                    start = -1;
+                }
+            }
+        }
+        return words.isEmpty() ? NO_TERMS : words.toArray(new String[0]);
+    }
+
+    // Slots for one word in ascending order, so a rewrite or removal finds its slot by binary search instead of
+    // scanning the postings of common words; slots are mostly added in increasing order, which appends
+    private static class Postings {
+        private final String word;
+        private int[] slots = new int[4];
+        private int size;
+
+        Postings(String word) {
+            this.word = word;
+        }
+
+        void add(int slot) {
+            int i = size == 0 || slots[size - 1] < slot ? size : Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0 && i < size) return;
+            if (i < 0) i = -i - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            System.arraycopy(slots, i, slots, i + 1, size - i);
+            slots[i] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i < 0) return;
+            System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+            size--;
+        }
+    }
+}
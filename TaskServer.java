@@ -0,0 +1,391 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Headless mode: serves task CRUD, filtered listing and alarm state over HTTP, one virtual thread per request.
+// Reads come from a shared TaskCache that a delta sync keeps current, so many clients cost the database one
+// poll instead of a query each; writes go through the shared connection pool and are synced before replying.
+//
+//   GET    /tasks[?status=Pending&limit=100]   GET /tasks/{id}
+//   POST   /tasks                              PUT /tasks/{id}    DELETE /tasks/{id}
+//   GET    /alarms
+class TaskServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final long SYNC_INTERVAL_MILLIS = 2000;
+
+    private final TaskRepository repository = new TaskRepository();
+    private final TaskCache taskCache = new TaskCache();
+    // Tasks between their start and end alarms, the server's equivalent of the GUI's continuous alarm
+    private final Map<Long, Task> runningTasks = new ConcurrentHashMap<>();
+    private final AlarmScheduler alarmScheduler = new AlarmScheduler(new AlarmScheduler.Listener() {
+        @Override
+        public void taskStarted(Task task) {
+            runningTasks.put(task.getId(), task);
+        }
+
+        @Override
+        public void taskEnded(Task task) {
+            runningTasks.remove(task.getId());
+        }
+    });
+    private final ScheduledExecutorService syncTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "task-server-sync");
+        t.setDaemon(true);
+        return t;
+    });
+    private long syncWatermark; // guarded by this
+    private HttpServer server;
+
+    void start(InetSocketAddress address) throws IOException, SQLException {
+        TaskDelta loaded = repository.loadTasks(TaskManager.FILTER_ALL);
+        synchronized (this) {
+            load(loaded);
+        }
+        syncTimer.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (SQLException e) {
+                System.err.println("Task sync failed: " + e.getMessage());
+            }
+        }, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/alarms", this::handleAlarms);
+        server.start();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(1);
+        }
+        syncTimer.shutdownNow();
+        alarmScheduler.shutdown();
+    }
+
+    // Pulls rows changed by any client, this one included, into the cache and the alarm wheel. The query runs
+    // outside the monitor so concurrent writes do not queue behind each other's I/O (a virtual thread blocked
+    // inside synchronized pins its carrier). A delta fetched from an older watermark covers everything up to its
+    // own, so one that is not newer than what was already applied is dropped rather than applied out of order.
+    private void sync() throws SQLException {
+        long watermark;
+        synchronized (this) {
+            watermark = syncWatermark;
+        }
+        TaskDelta delta = repository.getChangesSince(watermark);
+        if (delta.isReloadRequired()) {
+            TaskDelta loaded = repository.loadTasks(TaskManager.FILTER_ALL);
+            synchronized (this) {
+                if (loaded.getWatermark() < syncWatermark) return;
+                load(loaded);
+            }
+            return;
+        }
+        synchronized (this) {
+            if (delta.getWatermark() <= syncWatermark) return;
+            apply(delta);
+        }
+    }
+
+    // Caller holds the monitor
+    private void load(TaskDelta loaded) {
+        List<Task> tasks = loaded.getChanged();
+        taskCache.replaceAll(tasks);
+        runningTasks.keySet().removeIf(taskId -> taskCache.get(taskId) == null);
+        long now = System.currentTimeMillis();
+        for (Task task : tasks) {
+            updateRunning(task, now);
+        }
+        alarmScheduler.reconcile(tasks);
+        syncWatermark = loaded.getWatermark();
+    }
+
+    // Caller holds the monitor
+    private void apply(TaskDelta delta) {
+        syncWatermark = delta.getWatermark();
+        long now = System.currentTimeMillis();
+        for (Task task : delta.getChanged()) {
+            taskCache.put(task);
+            updateRunning(task, now);
+            alarmScheduler.schedule(task);
+        }
+        for (long taskId : delta.getDeletedIds()) {
+            taskCache.remove(taskId);
+            runningTasks.remove(taskId);
+            alarmScheduler.cancel(taskId);
+        }
+    }
+
+    private void updateRunning(Task task, long now) {
+        boolean running = !task.isFinished()
+                && task.getStartDate().getTime() <= now && task.getEndDate().getTime() > now;
+        if (running) {
+            runningTasks.put(task.getId(), task);
+        } else {
+            runningTasks.remove(task.getId());
+        }
+    }
+
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals("/tasks") || path.equals("/tasks/")) {
+                if (method.equals("GET")) {
+                    listTasks(exchange);
+                } else if (method.equals("POST")) {
+                    createTask(exchange);
+                } else {
+                    sendError(exchange, 405, "Method not allowed");
+                }
+                return;
+            }
+            long taskId;
+            try {
+                taskId = Long.parseLong(path.substring("/tasks/".length()));
+            } catch (NumberFormatException e) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+            switch (method) {
+                case "GET":
+                    Task task = taskCache.get(taskId);
+                    if (task == null) {
+                        sendError(exchange, 404, "Task " + taskId + " not found");
+                    } else {
+                        sendTask(exchange, 200, task);
+                    }
+                    break;
+                case "PUT":
+                    updateTask(exchange, taskId);
+                    break;
+                case "DELETE":
+                    if (taskCache.get(taskId) == null) {
+                        sendError(exchange, 404, "Task " + taskId + " not found");
+                        return;
+                    }
+                    repository.deleteTask(taskId);
+                    sync();
+                    send(exchange, 204, null);
+                    break;
+                default:
+                    sendError(exchange, 405, "Method not allowed");
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            sendError(exchange, 500, "Database error: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void listTasks(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> params = queryParams(exchange);
+        String status = params.get("status");
+        if (status != null && !repository.isKnownStatus(status)) {
+            throw new IllegalArgumentException("Unknown status '" + status + "'");
+        }
+        int limit = params.containsKey("limit") ? parseLimit(params.get("limit")) : Integer.MAX_VALUE;
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : taskCache.values()) {
+            if (status == null || status.equals(task.getStatus())) {
+                tasks.add(task);
+            }
+        }
+        tasks.sort(Task.NEWEST_FIRST);
+        StringBuilder body = new StringBuilder(Math.min(tasks.size(), limit) * 160 + 2).append('[');
+        for (int i = 0; i < tasks.size() && i < limit; i++) {
+            if (i > 0) body.append(',');
+            TaskJson.appendTask(body, tasks.get(i));
+        }
+        send(exchange, 200, body.append(']').toString());
+    }
+
+    private void createTask(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, String> fields = readBody(exchange);
+        Timestamp start = date(fields, "start_date");
+        Timestamp end = date(fields, "end_date");
+        if (end.before(start)) {
+            throw new IllegalArgumentException("end_date cannot be before start_date");
+        }
+        String name = requireName(fields);
+        String description = description(fields);
+        checkSize(name, description);
+        long taskId = repository.addTask(name, description, start, end, status(fields));
+        sync();
+        Task task = taskCache.get(taskId);
+        if (task == null) {
+            sendError(exchange, 500, "Task " + taskId + " was created but could not be read back");
+        } else {
+            sendTask(exchange, 201, task);
+        }
+    }
+
+    private void updateTask(HttpExchange exchange, long taskId) throws IOException, SQLException {
+        Task existing = taskCache.get(taskId);
+        if (existing == null) {
+            sendError(exchange, 404, "Task " + taskId + " not found");
+            return;
+        }
+        // Fields left out of the body keep their current value
+        Map<String, String> fields = readBody(exchange);
+        String name = fields.containsKey("name") ? requireName(fields) : existing.getName();
+        String description = fields.containsKey("description") ? description(fields) : existing.getDescription();
+        Timestamp start = fields.containsKey("start_date") ? date(fields, "start_date") : new Timestamp(existing.getStartDate().getTime());
+        Timestamp end = fields.containsKey("end_date") ? date(fields, "end_date") : new Timestamp(existing.getEndDate().getTime());
+        String status = fields.containsKey("status") ? status(fields) : existing.getStatus();
+        if (end.before(start)) {
+            throw new IllegalArgumentException("end_date cannot be before start_date");
+        }
+        checkSize(name, description);
+        repository.updateTask(taskId, name, description, start, end, status);
+        sync();
+        sendTask(exchange, 200, taskCache.get(taskId));
+    }
+
+    private void handleAlarms(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendError(exchange, 405, "Method not allowed");
+                return;
+            }
+            List<Task> running = new ArrayList<>(runningTasks.values());
+            running.sort(Comparator.comparingLong((Task task) -> task.getEndDate().getTime()));
+            StringBuilder body = new StringBuilder(running.size() * 160 + 128);
+            body.append("{\"scheduled_alarms\":").append(alarmScheduler.getQueueDepth());
+            body.append(",\"fired_alarms\":").append(alarmScheduler.getFiredCount());
+            body.append(",\"last_lag_ms\":").append(alarmScheduler.getLastLagMillis());
+            body.append(",\"max_lag_ms\":").append(alarmScheduler.getMaxLagMillis());
+            body.append(",\"running\":[");
+            for (int i = 0; i < running.size(); i++) {
+                if (i > 0) body.append(',');
+                TaskJson.appendTask(body, running.get(i));
+            }
+            send(exchange, 200, body.append("]}").toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            Map<String, String> fields = new TaskJson.ObjectReader(reader).next();
+            if (fields == null) throw new IllegalArgumentException("Request body must be a JSON object");
+            return fields;
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static int parseLimit(String value) {
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit >= 0) return limit;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("limit must be a non-negative number");
+    }
+
+    private static String requireName(Map<String, String> fields) {
+        String name = fields.get("name");
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("name is required");
+        return name.trim();
+    }
+
+    private static void checkSize(String name, String description) {
+        String problem = Task.sizeProblem(name, description);
+        if (problem != null) throw new IllegalArgumentException(problem);
+    }
+
+    private static String description(Map<String, String> fields) {
+        String description = fields.get("description");
+        return description == null ? "" : description.trim();
+    }
+
+    private static Timestamp date(Map<String, String> fields, String field) {
+        try {
+            return TaskImportExport.parseDate(fields.get(field), field);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private String status(Map<String, String> fields) throws SQLException {
+        String status = fields.getOrDefault("status", "Pending");
+        if (!repository.isKnownStatus(status)) throw new IllegalArgumentException("Unknown status '" + status + "'");
+        return status;
+    }
+
+    private static void sendTask(HttpExchange exchange, int code, Task task) throws IOException {
+        StringBuilder body = new StringBuilder(192);
+        TaskJson.appendTask(body, task);
+        send(exchange, code, body.toString());
+    }
+
+    private static void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        StringBuilder body = new StringBuilder("{\"error\":");
+        TaskJson.appendString(body, message);
+        send(exchange, code, body.append('}').toString());
+    }
+
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(code, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // java TaskServer [port]; listens on loopback unless -Dtaskmanager.server.host names another address
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String host = System.getProperty("taskmanager.server.host");
+        InetAddress address = host != null ? InetAddress.getByName(host) : InetAddress.getLoopbackAddress();
+        TaskServer taskServer = new TaskServer();
+        taskServer.start(new InetSocketAddress(address, port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            taskServer.stop();
+            DatabaseConnection.shutdown();
+        }));
+        System.out.println("Task server listening on http://" + address.getHostAddress() + ":" + port);
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// The task list as of a change-log version, saved locally so the next start can show it before the store
+// answers. Only meaningful for the store it came from, so the store's name is part of the header.
+final class TaskSnapshot {
+    private static final int MAGIC = 0x54534e50; // "TSNP"
+    private static final int FORMAT = 2; // 2: strings as length-prefixed UTF-8, since writeUTF stops at 64 KB
+    private static final Object WRITE_LOCK = new Object();
+
+    private final List<Task> tasks;
+    private final long watermark;
+    private final long savedAt;
+
+    private TaskSnapshot(List<Task> tasks, long watermark, long savedAt) {
+        this.tasks = tasks;
+        this.watermark = watermark;
+        this.savedAt = savedAt;
+    }
+
+    List<Task> getTasks() {
+        return tasks;
+    }
+
+    long getWatermark() {
+        return watermark;
+    }
+
+    long getSavedAt() {
+        return savedAt;
+    }
+
+    // [magic][format][store][savedAt][watermark][count][tasks...][crc32], replaced atomically
+    static void write(Path file, String store, Collection<Task> tasks, long watermark) throws IOException {
+        synchronized (WRITE_LOCK) {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            CRC32 crc = new CRC32();
+            try (OutputStream out = Files.newOutputStream(temp);
+                 DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(out, crc), 1 << 16))) {
+                data.writeInt(MAGIC);
+                data.writeInt(FORMAT);
+                writeString(data, store);
+                data.writeLong(System.currentTimeMillis());
+                data.writeLong(watermark);
+                data.writeInt(tasks.size());
+                for (Task task : tasks) {
+                    data.writeLong(task.getId());
+                    writeString(data, task.getName());
+                    writeString(data, task.getDescription() != null ? task.getDescription() : "");
+                    data.writeLong(task.getStartDate().getTime());
+                    data.writeLong(task.getEndDate().getTime());
+                    data.writeByte(TaskTableModel.statusCode(task.getStatus()));
+                    data.writeLong(task.getUpdatedAt() != null ? task.getUpdatedAt().getTime() : 0);
+                }
+                // The checksum covers everything above it
+                data.flush();
+                data.writeLong(crc.getValue());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // Null when there is no usable snapshot for this store; a damaged one is treated as missing
+    static TaskSnapshot read(Path file, String store) {
+        if (!Files.exists(file)) return null;
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length < 8) return null;
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 8);
+            if (ByteBuffer.wrap(bytes, bytes.length - 8, 8).getLong() != crc.getValue()) return null;
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+            if (data.readInt() != MAGIC || data.readInt() != FORMAT || !readString(data).equals(store)) return null;
+            long savedAt = data.readLong();
+            long watermark = data.readLong();
+            int count = data.readInt();
+            List<Task> tasks = new ArrayList<>(Math.max(0, Math.min(count, 1 << 20)));
+            for (int i = 0; i < count; i++) {
+                long taskId = data.readLong();
+                String name = readString(data);
+                String description = readString(data);
+                Date start = new Date(data.readLong());
+                Date end = new Date(data.readLong());
+                String status = TaskTableModel.statusName(data.readByte());
+                Date updatedAt = new Date(data.readLong());
+                tasks.add(new Task(taskId, name, description, start, end, status, updatedAt));
+            }
+            return new TaskSnapshot(tasks, watermark, savedAt);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // [length][UTF-8 bytes], like the file store's records
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length < 0 || length > data.available()) throw new IOException("Bad string length " + length);
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
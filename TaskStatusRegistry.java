@@ -0,0 +1,69 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// task_status read once per process: reads map status_id to its name in memory instead of joining,
+// and writes bind the id directly instead of running a subquery
+final class TaskStatusRegistry {
+    private static volatile TaskStatusRegistry instance;
+    private final String[] namesById;
+    private final Map<String, Integer> idsByName;
+
+    private TaskStatusRegistry(String[] namesById, Map<String, Integer> idsByName) {
+        this.namesById = namesById;
+        this.idsByName = idsByName;
+    }
+
+    static TaskStatusRegistry get() throws SQLException {
+        TaskStatusRegistry registry = instance;
+        if (registry != null) return registry;
+        synchronized (TaskStatusRegistry.class) {
+            if (instance == null) {
+                SchemaMigrator.ensureCurrent();
+                try (Connection conn = DatabaseConnection.getConnection()) {
+                    instance = load(conn);
+                }
+            }
+            return instance;
+        }
+    }
+
+    static TaskStatusRegistry load(Connection conn) throws SQLException {
+        String[] namesById = new String[8];
+        Map<String, Integer> idsByName = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT status_id, status_name FROM task_status")) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                int id = rs.getInt("status_id");
+                String name = rs.getString("status_name");
+                if (id < 0) throw new SQLException("Unexpected negative status_id " + id);
+                if (id >= namesById.length) {
+                    namesById = Arrays.copyOf(namesById, Math.max(id + 1, namesById.length * 2));
+                }
+                namesById[id] = name;
+                idsByName.put(name, id);
+            }
+        }
+        return new TaskStatusRegistry(namesById, idsByName);
+    }
+
+    int idOf(String name) throws SQLException {
+        Integer id = idsByName.get(name);
+        if (id == null) throw new SQLException("Unknown task status '" + name + "'");
+        return id;
+    }
+
+    boolean contains(String name) {
+        return idsByName.containsKey(name);
+    }
+
+    String nameOf(int id) throws SQLException {
+        String name = id >= 0 && id < namesById.length ? namesById[id] : null;
+        if (name == null) throw new SQLException("Unknown status_id " + id);
+        return name;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+// Where tasks live. Implementations are thread-safe and number every write with a version that
+// getChangesSince reads back; failures surface as SQLException whichever backend raised them.
+interface TaskStore {
+    // Newest updated_at first; filter is a status name or TaskManager.FILTER_ALL
+    List<Task> getTasks(String filter) throws SQLException;
+
+    // Keyset pagination on (updated_at, task_id), newest first; a negative afterTaskId asks for the first page
+    List<Task> getTaskPage(String filter, long afterUpdatedMillis, long afterTaskId, int limit) throws SQLException;
+
+    // Unfinished tasks (see Task.isFinished) that are running at some point in [fromMillis, toMillis): what the alarms need
+    List<Task> getTasksDueBetween(long fromMillis, long toMillis) throws SQLException;
+
+    long getCurrentVersion() throws SQLException;
+
+    TaskDelta getChangesSince(long version) throws SQLException;
+
+    long addTask(String name, String description, Date startDate, Date endDate, String status) throws SQLException;
+
+    void updateTask(long taskId, String name, String description, Date startDate, Date endDate, String status) throws SQLException;
+
+    void deleteTask(long taskId) throws SQLException;
+
+    void updateStatus(long[] taskIds, String status) throws SQLException;
+
+    void rescheduleTasks(long[] taskIds, int shiftMinutes) throws SQLException;
+
+    void deleteTasks(long[] taskIds) throws SQLException;
+
+    // Full-row updates and deletes applied together, as the write-behind queue flushes them
+    void writeBatch(List<Task> updates, long[] deletedIds) throws SQLException;
+
+    boolean isKnownStatus(String status) throws SQLException;
+
+    void close();
+}
@@ -0,0 +1,502 @@
+import javax.swing.table.AbstractTableModel;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+
+// Columnar task storage: one primitive array per field, indexed by a slot that stays put until the task is removed.
+// The view is a separate list of slots in display order, and dates are only formatted for the cells Swing paints.
+// Filtering runs against a bitset of slots per status, so switching filters never goes back to the database.
+// Text search keeps its matching slots in a bitset as well, updated on every write from TaskSearchIndex;
+// the index itself is only built once the first search is typed. A change moves or drops single rows, while a
+// large delta is applied in one pass over the rows.
+class TaskTableModel extends AbstractTableModel {
+    static final String[] COLUMNS = { "Task Name", "Description", "Start Date", "End Date", "Status" };
+    private static final int INITIAL_CAPACITY = 1024;
+    // Typing on rechecks a small earlier result; a large one is cheaper to look up again
+    private static final int MAX_RECHECKED_MATCHES = 4096;
+    // Past this many rows a delta is cheaper, for the model and for JTable, as one rebuild than as row events
+    private static final int MAX_ROW_EVENTS = 128;
+    private final SimpleDateFormat dateFormat;
+    private final Date scratchDate = new Date();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private long[] startMillis = new long[INITIAL_CAPACITY];
+    private long[] endMillis = new long[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private final LongIntHashMap slotById = new LongIntHashMap(-1);
+    private final BitSet[] slotsByStatus = new BitSet[TaskManager.TASK_STATUSES.length];
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private boolean searchIndexed;
+
+    // Every slot in updated_at DESC order, and the subset of it that passes the current filter
+    private SlotList allRows = new SlotList();
+    private SlotList viewRows = allRows;
+    // Status-only views built earlier, reused until a write touches the table
+    private final SlotList[] statusViews = new SlotList[TaskManager.TASK_STATUSES.length];
+    private byte filterStatus = -1;
+    private long filterFrom = Long.MIN_VALUE;
+    private long filterTo = Long.MAX_VALUE;
+    private String[] searchTerms = TaskSearchIndex.terms(null);
+    private BitSet searchSlots; // null when no search is active
+
+    TaskTableModel(SimpleDateFormat dateFormat) {
+        this.dateFormat = dateFormat;
+        for (int i = 0; i < slotsByStatus.length; i++) {
+            slotsByStatus[i] = new BitSet();
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return viewRows.size;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int slot = viewRows.get(row);
+        switch (column) {
+            case 0:
+                return names[slot];
+            case 1:
+                return descriptions[slot];
+            case 2:
+                return formatDate(startMillis[slot]);
+            case 3:
+                return formatDate(endMillis[slot]);
+            default:
+                return statusName(statuses[slot]);
+        }
+    }
+
+    // Bulk load: fills the columns in one pass and fires a single change event
+    void setTasks(List<Task> tasks) {
+        int capacity = Math.max(INITIAL_CAPACITY, tasks.size());
+        ids = new long[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        startMillis = new long[capacity];
+        endMillis = new long[capacity];
+        statuses = new byte[capacity];
+        freeCount = 0;
+        slotById.clear();
+        for (BitSet slots : slotsByStatus) {
+            slots.clear();
+        }
+        searchIndex.clear();
+        if (searchSlots != null) {
+            searchSlots.clear();
+        }
+        allRows = new SlotList();
+        slotCount = 0;
+        for (Task task : tasks) {
+            int slot = slotCount++;
+            store(slot, task);
+            allRows.add(slot);
+        }
+        Arrays.fill(statusViews, null);
+        rebuildView();
+        fireTableDataChanged();
+    }
+
+    // statusCode -1 means any status; the date range keeps tasks whose start..end overlaps [from, to];
+    // the query keeps tasks with a word in the name or description starting with each of its words
+    void setFilter(byte statusCode, long from, long to, String query) {
+        filterStatus = statusCode;
+        filterFrom = from;
+        filterTo = to;
+        String[] terms = TaskSearchIndex.terms(query);
+        if (terms.length == 0) {
+            searchSlots = null;
+        } else if (searchSlots != null && searchSlots.cardinality() <= MAX_RECHECKED_MATCHES && TaskSearchIndex.refines(searchTerms, terms)) {
+            searchIndex.retain(searchSlots, terms);
+        } else if (searchSlots == null || !Arrays.equals(searchTerms, terms)) {
+            if (!searchIndexed) {
+                for (int row = 0; row < allRows.size; row++) {
+                    int slot = allRows.get(row);
+                    searchIndex.add(slot, names[slot], descriptions[slot]);
+                }
+                searchIndexed = true;
+            }
+            searchSlots = searchIndex.search(terms);
+        }
+        searchTerms = terms;
+        rebuildView();
+        fireTableDataChanged();
+    }
+
+    // Moves the task to the top, matching the updated_at DESC order of a full load
+    void upsertTask(Task task) {
+        int slot = slotById.get(task.getId());
+        boolean added = slot < 0;
+        if (added) {
+            slot = allocateSlot();
+        }
+        int row = added ? -1 : viewRows.indexOf(slot);
+        if (!added && viewRows != allRows) {
+            allRows.delete(allRows.indexOf(slot));
+        }
+        if (row >= 0) {
+            viewRows.delete(row);
+        }
+        store(slot, task);
+        invalidateStatusViews();
+        if (viewRows != allRows) {
+            allRows.addFirst(slot);
+        }
+        boolean visible = matchesFilter(slot);
+        if (row == 0 && visible) {
+            viewRows.addFirst(slot);
+            fireTableRowsUpdated(0, 0);
+            return;
+        }
+        if (row >= 0) {
+            fireTableRowsDeleted(row, row);
+        }
+        if (visible) {
+            viewRows.addFirst(slot);
+            fireTableRowsInserted(0, 0);
+        }
+    }
+
+    void removeTask(long taskId) {
+        int slot = slotById.remove(taskId);
+        if (slot < 0) return;
+        int row = viewRows.indexOf(slot);
+        if (viewRows != allRows) {
+            allRows.delete(allRows.indexOf(slot));
+        }
+        if (row >= 0) {
+            viewRows.delete(row);
+        }
+        clearSlot(slot);
+        invalidateStatusViews();
+        if (row >= 0) {
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    // A delta in the order it happened, so the last change ends up on top as with upsertTask one by one. A large
+    // one rebuilds the row order in a single pass instead of moving rows one at a time.
+    void applyChanges(List<Task> changed, List<Long> deletedIds) {
+        if (changed.size() + deletedIds.size() <= MAX_ROW_EVENTS) {
+            for (Task task : changed) {
+                upsertTask(task);
+            }
+            for (long taskId : deletedIds) {
+                removeTask(taskId);
+            }
+            return;
+        }
+        BitSet moved = new BitSet();
+        for (long taskId : deletedIds) {
+            int slot = slotById.remove(taskId);
+            if (slot < 0) continue;
+            moved.set(slot);
+            clearSlot(slot);
+        }
+        int[] top = new int[changed.size()];
+        int topCount = 0;
+        for (Task task : changed) {
+            int slot = slotById.get(task.getId());
+            if (slot < 0) {
+                slot = allocateSlot();
+            }
+            store(slot, task);
+            top[topCount++] = slot;
+        }
+        // A slot freed by a delete and reused by an add above is both dropped from its old row and put on top
+        SlotList rows = new SlotList();
+        BitSet placed = new BitSet();
+        for (int i = topCount - 1; i >= 0; i--) {
+            if (placed.get(top[i])) continue;
+            placed.set(top[i]);
+            moved.set(top[i]);
+            rows.add(top[i]);
+        }
+        for (int row = 0; row < allRows.size; row++) {
+            int slot = allRows.get(row);
+            if (!moved.get(slot)) {
+                rows.add(slot);
+            }
+        }
+        allRows = rows;
+        Arrays.fill(statusViews, null);
+        rebuildView();
+        fireTableDataChanged();
+    }
+
+    long getTaskIdAt(int row) {
+        return ids[viewRows.get(row)];
+    }
+
+    static byte statusCode(String status) {
+        for (int i = 0; i < TaskManager.TASK_STATUSES.length; i++) {
+            if (TaskManager.TASK_STATUSES[i].equals(status)) return (byte) i;
+        }
+        return -1;
+    }
+
+    static String statusName(byte code) {
+        return code >= 0 ? TaskManager.TASK_STATUSES[code] : "";
+    }
+
+    private String formatDate(long millis) {
+        scratchDate.setTime(millis);
+        return dateFormat.format(scratchDate);
+    }
+
+    private void rebuildView() {
+        boolean statusOnly = filterFrom == Long.MIN_VALUE && filterTo == Long.MAX_VALUE && searchSlots == null;
+        if (statusOnly && filterStatus < 0) {
+            viewRows = allRows;
+            return;
+        }
+        if (statusOnly && statusViews[filterStatus] != null) {
+            viewRows = statusViews[filterStatus];
+            return;
+        }
+        SlotList filtered = new SlotList();
+        for (int row = 0; row < allRows.size; row++) {
+            int slot = allRows.get(row);
+            if (matchesFilter(slot)) {
+                filtered.add(slot);
+            }
+        }
+        viewRows = filtered;
+        if (statusOnly) {
+            statusViews[filterStatus] = filtered;
+        }
+    }
+
+    // The active view is kept up to date row by row, every other cached view is rebuilt on next use
+    private void invalidateStatusViews() {
+        for (int i = 0; i < statusViews.length; i++) {
+            if (statusViews[i] != viewRows) {
+                statusViews[i] = null;
+            }
+        }
+    }
+
+    private boolean matchesFilter(int slot) {
+        if (filterStatus >= 0 && !slotsByStatus[filterStatus].get(slot)) return false;
+        if (searchSlots != null && !searchSlots.get(slot)) return false;
+        return startMillis[slot] <= filterTo && endMillis[slot] >= filterFrom;
+    }
+
+    private void store(int slot, Task task) {
+        if (slotById.get(task.getId()) == slot && statuses[slot] >= 0) {
+            slotsByStatus[statuses[slot]].clear(slot);
+        }
+        ids[slot] = task.getId();
+        names[slot] = task.getName();
+        descriptions[slot] = task.getDescription();
+        startMillis[slot] = task.getStartDate().getTime();
+        endMillis[slot] = task.getEndDate().getTime();
+        statuses[slot] = statusCode(task.getStatus());
+        if (statuses[slot] >= 0) {
+            slotsByStatus[statuses[slot]].set(slot);
+        }
+        if (searchIndexed) {
+            searchIndex.add(slot, task.getName(), task.getDescription());
+        }
+        if (searchSlots != null) {
+            searchSlots.set(slot, searchIndex.matches(slot, searchTerms));
+        }
+        slotById.put(task.getId(), slot);
+    }
+
+    private void clearSlot(int slot) {
+        if (statuses[slot] >= 0) {
+            slotsByStatus[statuses[slot]].clear(slot);
+        }
+        if (searchIndexed) {
+            searchIndex.remove(slot);
+        }
+        if (searchSlots != null) {
+            searchSlots.clear(slot);
+        }
+        names[slot] = null;
+        descriptions[slot] = null;
+        releaseSlot(slot);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            startMillis = Arrays.copyOf(startMillis, capacity);
+            endMillis = Arrays.copyOf(endMillis, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Slots in display order, cut into blocks of at most BLOCK_SIZE. Moving a row to the top or dropping one
+    // shifts within a single block and renumbers the blocks after it, and each slot's block is indexed, so
+    // finding a slot's row scans one block instead of the whole list.
+    private static class SlotList {
+        private static final int BLOCK_SIZE = 1024;
+        private Block[] blocks = new Block[16];
+        private int blockCount;
+        private Block[] blockBySlot = new Block[16];
+        private int size;
+        private int lastBlock; // painting reads rows in order, so the previous block is checked first
+
+        int get(int row) {
+            Block block = blocks[lastBlock];
+            if (row < block.firstRow || row >= block.firstRow + block.size) {
+                lastBlock = blockAt(row);
+                block = blocks[lastBlock];
+            }
+            return block.slots[row - block.firstRow];
+        }
+
+        int indexOf(int slot) {
+            Block block = slot < blockBySlot.length ? blockBySlot[slot] : null;
+            if (block == null) return -1;
+            for (int i = 0; i < block.size; i++) {
+                if (block.slots[i] == slot) return block.firstRow + i;
+            }
+            return -1;
+        }
+
+        // Appends at the bottom, for building a list in order
+        void add(int slot) {
+            if (blockCount == 0 || blocks[blockCount - 1].size == BLOCK_SIZE) {
+                insertBlock(blockCount, size);
+            }
+            Block block = blocks[blockCount - 1];
+            block.slots[block.size++] = slot;
+            track(slot, block);
+            size++;
+        }
+
+        void addFirst(int slot) {
+            if (blockCount == 0 || blocks[0].size == BLOCK_SIZE) {
+                insertBlock(0, 0);
+            }
+            Block block = blocks[0];
+            System.arraycopy(block.slots, 0, block.slots, 1, block.size);
+            block.slots[0] = slot;
+            block.size++;
+            track(slot, block);
+            size++;
+            renumber(1);
+        }
+
+        void delete(int row) {
+            int index = blockAt(row);
+            Block block = blocks[index];
+            int offset = row - block.firstRow;
+            System.arraycopy(block.slots, offset + 1, block.slots, offset, block.size - offset - 1);
+            block.size--;
+            size--;
+            if (block.size == 0) {
+                removeBlock(index);
+            } else if (block.size < BLOCK_SIZE / 4 && index + 1 < blockCount && block.size + blocks[index + 1].size <= BLOCK_SIZE) {
+                // Keep blocks from splintering so the block count stays near size / BLOCK_SIZE
+                Block next = blocks[index + 1];
+                System.arraycopy(next.slots, 0, block.slots, block.size, next.size);
+                for (int i = 0; i < next.size; i++) {
+                    blockBySlot[next.slots[i]] = block;
+                }
+                block.size += next.size;
+                next.size = 0;
+                removeBlock(index + 1);
+            }
+            renumber(index);
+        }
+
+        private int blockAt(int row) {
+            int low = 0;
+            int high = blockCount - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (blocks[mid].firstRow <= row) low = mid; else high = mid - 1;
+            }
+            return low;
+        }
+
+        private void insertBlock(int index, int firstRow) {
+            if (blockCount == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+            Block block = new Block();
+            block.firstRow = firstRow;
+            blocks[index] = block;
+            blockCount++;
+            lastBlock = 0;
+        }
+
+        private void removeBlock(int index) {
+            System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+            blocks[--blockCount] = null;
+            if (blockCount == 0) {
+                insertBlock(0, 0);
+            }
+            lastBlock = 0;
+        }
+
+        private void renumber(int from) {
+            int row = from > 0 ? blocks[from - 1].firstRow + blocks[from - 1].size : 0;
+            for (int i = from; i < blockCount; i++) {
+                blocks[i].firstRow = row;
+                row += blocks[i].size;
+            }
+        }
+
+        private void track(int slot, Block block) {
+            if (slot >= blockBySlot.length) {
+                blockBySlot = Arrays.copyOf(blockBySlot, Math.max(slot + 1, blockBySlot.length + (blockBySlot.length >> 1)));
+            }
+            blockBySlot[slot] = block;
+        }
+
+        private static final class Block {
+            final int[] slots = new int[BLOCK_SIZE];
+            int size;
+            int firstRow;
+        }
+    }
+}
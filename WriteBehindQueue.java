@@ -0,0 +1,297 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Write-behind for edits to existing tasks. A write returns once it is appended and fsync'd to a local
+// journal; a flusher then sends the latest state of each touched task to MySQL in one transaction, so a
+// task edited five times between flushes costs one UPDATE. Before a flush the journal is rolled to a
+// ".flushing" segment that is deleted once the batch commits; both are replayed on the next start.
+class WriteBehindQueue {
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final TaskRepository repository;
+    private final Path journalFile;
+    private final Path flushingFile;
+    private final Consumer<Throwable> errorHandler;
+    // Latest unflushed state per task_id in first-touched order; a null value is a pending delete
+    private final Map<Long, Task> pending = new LinkedHashMap<>(); // guarded by this
+    // The batch being written; still unconfirmed, so it counts as pending until the write commits
+    private Map<Long, Task> inFlight = Map.of(); // guarded by this
+    private FileChannel journal; // guarded by this
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "write-behind-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    WriteBehindQueue(TaskRepository repository, Path journalFile, Consumer<Throwable> errorHandler) throws IOException {
+        this.repository = repository;
+        this.journalFile = journalFile;
+        this.flushingFile = journalFile.resolveSibling(journalFile.getFileName() + ".flushing");
+        this.errorHandler = errorHandler;
+        recover();
+        flusher.scheduleWithFixedDelay(this::flush, 0, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void put(Task task) throws IOException {
+        putAll(List.of(task));
+    }
+
+    // One fsync covers the whole list
+    synchronized void putAll(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream(tasks.size() * 128);
+        for (Task task : tasks) {
+            appendRecord(records, PUT, task.getId(), task);
+        }
+        append(records);
+        for (Task task : tasks) {
+            pending.put(task.getId(), task);
+        }
+    }
+
+    synchronized void delete(long[] taskIds) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream(taskIds.length * 24);
+        for (long taskId : taskIds) {
+            appendRecord(records, DELETE, taskId, null);
+        }
+        append(records);
+        for (long taskId : taskIds) {
+            pending.put(taskId, null);
+        }
+    }
+
+    synchronized boolean isPending(long taskId) {
+        return pending.containsKey(taskId) || inFlight.containsKey(taskId);
+    }
+
+    // Unflushed state to lay over rows freshly read from the database; newer pending edits win over the batch in flight
+    synchronized Map<Long, Task> pendingWrites() {
+        Map<Long, Task> writes = new LinkedHashMap<>(inFlight);
+        writes.putAll(pending);
+        return writes;
+    }
+
+    // Final best-effort flush; anything left over stays in the journal for the next start
+    void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (this) {
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void flush() {
+        Map<Long, Task> batch;
+        synchronized (this) {
+            if (pending.isEmpty() || !journal.isOpen()) return;
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+            try {
+                // A segment left behind by a failed requeue is already part of this batch; keep appending until it is gone
+                if (!Files.exists(flushingFile)) {
+                    journal.close();
+                    Files.move(journalFile, flushingFile, StandardCopyOption.ATOMIC_MOVE);
+                    journal = openJournal();
+                }
+            } catch (IOException e) {
+                pending.putAll(batch);
+                errorHandler.accept(e);
+                try {
+                    if (!journal.isOpen()) journal = openJournal();
+                } catch (IOException ignored) {
+                }
+                return;
+            }
+            inFlight = batch;
+        }
+        try {
+            write(batch);
+        } catch (Exception e) {
+            // Anything thrown out of here would cancel the scheduled flusher for good, so even a bug in the
+            // store or the pool only costs this attempt
+            requeue(batch);
+            errorHandler.accept(e);
+            return;
+        }
+        synchronized (this) {
+            inFlight = Map.of();
+        }
+        try {
+            Files.deleteIfExists(flushingFile);
+        } catch (IOException e) {
+            errorHandler.accept(e);
+        }
+    }
+
+    private void write(Map<Long, Task> batch) throws SQLException {
+        List<Task> updates = new ArrayList<>(batch.size());
+        List<Long> deletes = new ArrayList<>();
+        for (Map.Entry<Long, Task> entry : batch.entrySet()) {
+            if (entry.getValue() != null) {
+                updates.add(entry.getValue());
+            } else {
+                deletes.add(entry.getKey());
+            }
+        }
+        long[] deletedIds = new long[deletes.size()];
+        for (int i = 0; i < deletedIds.length; i++) {
+            deletedIds[i] = deletes.get(i);
+        }
+        repository.writeBatch(updates, deletedIds);
+    }
+
+    // A failed batch goes back into the live journal, except for tasks that were written again meanwhile
+    private synchronized void requeue(Map<Long, Task> batch) {
+        Map<Long, Task> restored = new LinkedHashMap<>();
+        for (Map.Entry<Long, Task> entry : batch.entrySet()) {
+            if (!pending.containsKey(entry.getKey())) {
+                restored.put(entry.getKey(), entry.getValue());
+            }
+        }
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        try {
+            for (Map.Entry<Long, Task> entry : restored.entrySet()) {
+                appendRecord(records, entry.getValue() != null ? PUT : DELETE, entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        restored.putAll(pending);
+        pending.clear();
+        pending.putAll(restored);
+        inFlight = Map.of();
+        try {
+            append(records);
+            Files.deleteIfExists(flushingFile);
+        } catch (IOException e) {
+            // The .flushing segment is still on disk and will be replayed on the next start
+            errorHandler.accept(e);
+        }
+    }
+
+    // Replays the segment that was being flushed and the live journal, then compacts them into a new journal
+    private void recover() throws IOException {
+        readJournal(flushingFile);
+        readJournal(journalFile);
+        Path compacted = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        for (Map.Entry<Long, Task> entry : pending.entrySet()) {
+            appendRecord(records, entry.getValue() != null ? PUT : DELETE, entry.getKey(), entry.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(records.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(compacted, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(flushingFile);
+        journal = openJournal();
+    }
+
+    // Stops at the first torn or corrupt record, which can only be the tail of an interrupted append
+    private void readJournal(Path file) throws IOException {
+        if (!Files.exists(file)) return;
+        try (InputStream in = Files.newInputStream(file);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            while (true) {
+                int length;
+                byte[] record;
+                long checksum;
+                try {
+                    length = data.readInt();
+                    if (length <= 0 || length > 1 << 20) return;
+                    record = new byte[length];
+                    data.readFully(record);
+                    checksum = data.readLong();
+                } catch (EOFException e) {
+                    return;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(record);
+                if (crc.getValue() != checksum) return;
+                DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+                byte op = fields.readByte();
+                long taskId = fields.readLong();
+                if (op == PUT) {
+                    String name = fields.readUTF();
+                    String description = fields.readUTF();
+                    Date start = new Date(fields.readLong());
+                    Date end = new Date(fields.readLong());
+                    String status = fields.readUTF();
+                    pending.put(taskId, new Task(taskId, name, description, start, end, status, new Date(fields.readLong())));
+                } else {
+                    pending.put(taskId, null);
+                }
+            }
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void append(ByteArrayOutputStream records) throws IOException {
+        if (records.size() == 0) return;
+        ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journal.force(false);
+    }
+
+    // [length][op, task_id, fields][crc32]
+    private static void appendRecord(ByteArrayOutputStream out, byte op, long taskId, Task task) throws IOException {
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(128);
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        record.writeByte(op);
+        record.writeLong(taskId);
+        if (op == PUT) {
+            record.writeUTF(task.getName());
+            record.writeUTF(task.getDescription() != null ? task.getDescription() : "");
+            record.writeLong(task.getStartDate().getTime());
+            record.writeLong(task.getEndDate().getTime());
+            record.writeUTF(task.getStatus());
+            record.writeLong(task.getUpdatedAt() != null ? task.getUpdatedAt().getTime() : System.currentTimeMillis());
+        }
+        record.flush();
+        CRC32 crc = new CRC32();
+        crc.update(recordBytes.toByteArray());
+        DataOutputStream framed = new DataOutputStream(out);
+        framed.writeInt(recordBytes.size());
+        recordBytes.writeTo(framed);
+        framed.writeLong(crc.getValue());
+        framed.flush();
+    }
+}
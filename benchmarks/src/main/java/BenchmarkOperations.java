@@ -0,0 +1,162 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+// JMH will not generate code for benchmarks in the unnamed package, and a named package cannot see the
+// application's classes, so the benchmarks reach the code under test through these operations instead.
+// Each one is built once per trial; calling it runs exactly the work being measured.
+public final class BenchmarkOperations {
+    // H2 in MySQL mode stands in for the server, so the suite runs anywhere without one
+    private static final String JDBC_URL = "jdbc:h2:mem:task_manager;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final long HOUR = 3_600_000L;
+
+    private BenchmarkOperations() {
+    }
+
+    public static Callable<Object> create(String operation, int taskCount) throws Exception {
+        switch (operation) {
+            case "mapResultSet":
+                return mapResultSet(taskCount);
+            case "populateTableModel":
+                return populateTableModel(taskCount);
+            case "filterByStatus":
+                return filterByStatus(taskCount);
+            case "rescheduleAlarms":
+                return rescheduleAlarms(taskCount);
+            case "reconcileUnchangedAlarms":
+                return reconcileUnchangedAlarms(taskCount);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    // The full-table query behind loadTasks: the SELECT plus mapping every row to a Task
+    private static Callable<Object> mapResultSet(int taskCount) throws SQLException {
+        System.setProperty("taskmanager.db.url", JDBC_URL);
+        System.setProperty("taskmanager.db.user", "sa");
+        System.setProperty("taskmanager.db.password", "");
+        // populateDatabase builds the schema itself; the migrator's GET_LOCK and information_schema are MySQL-only
+        System.setProperty("taskmanager.db.migrate", "false");
+        populateDatabase(tasks(taskCount, 0));
+        MySqlTaskStore store = new MySqlTaskStore();
+        return () -> store.getTasks(TaskManager.FILTER_ALL);
+    }
+
+    // What refreshTable does with a loaded list
+    private static Callable<Object> populateTableModel(int taskCount) {
+        List<Task> tasks = tasks(taskCount, 0);
+        TaskTableModel model = new TaskTableModel(new SimpleDateFormat("dd/MM/yyyy HH:mm"));
+        return () -> {
+            model.setTasks(tasks);
+            return model;
+        };
+    }
+
+    // Steps through every status filter and back to "All", as the filter combo box does
+    private static Callable<Object> filterByStatus(int taskCount) {
+        TaskTableModel model = new TaskTableModel(new SimpleDateFormat("dd/MM/yyyy HH:mm"));
+        model.setTasks(tasks(taskCount, 0));
+        int[] next = { 0 };
+        return () -> {
+            byte statusCode = (byte) (next[0]++ % (TaskManager.TASK_STATUSES.length + 1) - 1);
+            model.setFilter(statusCode, Long.MIN_VALUE, Long.MAX_VALUE, "");
+            return model.getRowCount();
+        };
+    }
+
+    // Every task moved by a minute on each call, so every alarm is rescheduled
+    private static Callable<Object> rescheduleAlarms(int taskCount) {
+        AlarmScheduler scheduler = new AlarmScheduler(silentListener());
+        List<List<Task>> versions = List.of(tasks(taskCount, 0), tasks(taskCount, 60_000));
+        scheduler.reconcile(versions.get(0));
+        int[] next = { 1 };
+        return () -> {
+            List<Task> tasks = versions.get(next[0]++ & 1);
+            scheduler.reconcile(tasks);
+            return tasks;
+        };
+    }
+
+    // The common case for scheduleAlarms after a refresh: nothing changed
+    private static Callable<Object> reconcileUnchangedAlarms(int taskCount) {
+        AlarmScheduler scheduler = new AlarmScheduler(silentListener());
+        List<Task> tasks = tasks(taskCount, 0);
+        scheduler.reconcile(tasks);
+        return () -> {
+            scheduler.reconcile(tasks);
+            return tasks;
+        };
+    }
+
+    private static AlarmScheduler.Listener silentListener() {
+        return new AlarmScheduler.Listener() {
+            @Override
+            public void taskStarted(Task task) {
+            }
+
+            @Override
+            public void taskEnded(Task task) {
+            }
+        };
+    }
+
+    // Same data for every run: starts spread over the next week, an hour long, statuses evenly mixed
+    private static List<Task> tasks(int count, long shiftMillis) {
+        Random random = new Random(42);
+        long base = System.currentTimeMillis() + HOUR;
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            long start = base + (long) (random.nextDouble() * 7 * 24 * HOUR) + shiftMillis;
+            String status = TaskManager.TASK_STATUSES[random.nextInt(TaskManager.TASK_STATUSES.length)];
+            tasks.add(new Task(i, "Task " + i, "Benchmark task number " + i, new Date(start), new Date(start + HOUR), status,
+                    new Date(base - i * 1000L)));
+        }
+        return tasks;
+    }
+
+    private static void populateDatabase(List<Task> tasks) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS tasks");
+            stmt.execute("DROP TABLE IF EXISTS task_status");
+            stmt.execute("CREATE TABLE task_status (status_id INT PRIMARY KEY, status_name VARCHAR(50) NOT NULL)");
+            stmt.execute("CREATE TABLE tasks (task_id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL, description TEXT, "
+                    + "start_date DATETIME NOT NULL, end_date DATETIME NOT NULL, status_id INT NOT NULL, "
+                    + "created_at DATETIME NOT NULL, updated_at DATETIME NOT NULL)");
+            stmt.execute("CREATE INDEX idx_tasks_updated ON tasks (updated_at, task_id)");
+            for (int i = 0; i < TaskManager.TASK_STATUSES.length; i++) {
+                stmt.execute("INSERT INTO task_status VALUES (" + (i + 1) + ", '" + TaskManager.TASK_STATUSES[i] + "')");
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement("INSERT INTO tasks VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                int batched = 0;
+                for (Task task : tasks) {
+                    Timestamp updated = new Timestamp(task.getUpdatedAt().getTime());
+                    insert.setLong(1, task.getId());
+                    insert.setString(2, task.getName());
+                    insert.setString(3, task.getDescription());
+                    insert.setTimestamp(4, new Timestamp(task.getStartDate().getTime()));
+                    insert.setTimestamp(5, new Timestamp(task.getEndDate().getTime()));
+                    insert.setInt(6, TaskTableModel.statusCode(task.getStatus()) + 1);
+                    insert.setTimestamp(7, updated);
+                    insert.setTimestamp(8, updated);
+                    insert.addBatch();
+                    if (++batched % 10_000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package taskmanager.benchmarks;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+// Throughput and sampled latency percentiles of the paths a refresh goes through, from the query to the
+// filtered table and the alarm wheel. TaskBenchmarks adds the GC profiler for allocation rates.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class TaskDataPathBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    public int taskCount;
+
+    private Callable<Object> operation;
+
+    // Each benchmark method is backed by the BenchmarkOperations operation of the same name
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp(BenchmarkParams params) throws Exception {
+        String benchmark = params.getBenchmark();
+        String name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        operation = (Callable<Object>) Class.forName("BenchmarkOperations")
+                .getMethod("create", String.class, int.class)
+                .invoke(null, name, taskCount);
+    }
+
+    @Benchmark
+    public Object mapResultSet() throws Exception {
+        return operation.call();
+    }
+
+    @Benchmark
+    public Object populateTableModel() throws Exception {
+        return operation.call();
+    }
+
+    @Benchmark
+    public Object filterByStatus() throws Exception {
+        return operation.call();
+    }
+
+    @Benchmark
+    public Object rescheduleAlarms() throws Exception {
+        return operation.call();
+    }
+
+    @Benchmark
+    public Object reconcileUnchangedAlarms() throws Exception {
+        return operation.call();
+    }
+}